@@ -0,0 +1,193 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+import ru.yandex.practicum.tasks.model.enums.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//История просмотров на параллельных массивах вместо объектов Node.
+//Ячейка (slot) хранит снимок полей таски, которые копирует getCopyTask: строки, Duration и LocalDateTime
+//неизменяемы, поэтому достаточно ссылок на них, и add не создает объектов (кроме редкого роста массивов).
+//Двусвязный список - индексы prev/next, освободившиеся ячейки собираются в список через next.
+//Объекты тасок создаются только в getHistory
+public class ArrayHistoryManager implements HistoryManager {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_SLOT = -1;
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    //0 - без ограничения, иначе при переполнении удаляется самая давно просмотренная таска
+    private final int capacity;
+    private final IntIntMap slotById = new IntIntMap();
+    private int[] prev = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] epicIds = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private LocalDateTime[] startTimes = new LocalDateTime[INITIAL_CAPACITY];
+    private Duration[] durations = new Duration[INITIAL_CAPACITY];
+    private int first = NO_SLOT;
+    private int last = NO_SLOT;
+    private int freeSlot = NO_SLOT;
+    //ячейки с этим номером и дальше еще ни разу не использовались
+    private int usedSlots;
+    private long evictionCount;
+
+    public ArrayHistoryManager() {
+        this(0);
+    }
+
+    public ArrayHistoryManager(int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void add(BaseTask task) {
+        int slot = slotById.get(task.getId(), NO_SLOT);
+        if (slot != NO_SLOT) {
+            unlink(slot);
+        } else {
+            slot = allocateSlot();
+            slotById.put(task.getId(), slot);
+        }
+        write(slot, task);
+        linkLast(slot);
+        if (capacity > 0 && slotById.size() > capacity) {
+            remove(ids[first]);
+            evictionCount++;
+        }
+    }
+
+    @Override
+    public List<BaseTask> getHistory() {
+        List<BaseTask> result = new ArrayList<>(slotById.size());
+        for (int slot = first; slot != NO_SLOT; slot = next[slot]) {
+            result.add(read(slot));
+        }
+        return result;
+    }
+
+    @Override
+    public void remove(int id) {
+        int slot = slotById.get(id, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return;
+        }
+        slotById.remove(id);
+        unlink(slot);
+        //ссылки обнуляем, чтобы не держать строки удаленной таски
+        names[slot] = null;
+        descriptions[slot] = null;
+        startTimes[slot] = null;
+        durations[slot] = null;
+        next[slot] = freeSlot;
+        freeSlot = slot;
+    }
+
+    public int size() {
+        return slotById.size();
+    }
+
+    //Сколько тасок удалено из истории из-за ограничения capacity
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    private int allocateSlot() {
+        if (freeSlot != NO_SLOT) {
+            int slot = freeSlot;
+            freeSlot = next[slot];
+            return slot;
+        }
+        if (usedSlots == ids.length) {
+            grow();
+        }
+        return usedSlots++;
+    }
+
+    private void grow() {
+        int newLength = ids.length * 2;
+        prev = Arrays.copyOf(prev, newLength);
+        next = Arrays.copyOf(next, newLength);
+        ids = Arrays.copyOf(ids, newLength);
+        epicIds = Arrays.copyOf(epicIds, newLength);
+        types = Arrays.copyOf(types, newLength);
+        statuses = Arrays.copyOf(statuses, newLength);
+        names = Arrays.copyOf(names, newLength);
+        descriptions = Arrays.copyOf(descriptions, newLength);
+        startTimes = Arrays.copyOf(startTimes, newLength);
+        durations = Arrays.copyOf(durations, newLength);
+    }
+
+    //Те же поля, что копирует InMemoryTaskManager.getCopyTask: у эпика они вычисляются и в историю не попадают
+    private void write(int slot, BaseTask task) {
+        ids[slot] = task.getId();
+        types[slot] = (byte) task.getTaskType().ordinal();
+        names[slot] = task.getName();
+        descriptions[slot] = task.getDescription();
+        if (task.getTaskType() == TaskType.EPIC) {
+            statuses[slot] = (byte) Status.NEW.ordinal();
+            startTimes[slot] = null;
+            durations[slot] = null;
+        } else {
+            statuses[slot] = (byte) task.getStatus().ordinal();
+            startTimes[slot] = task.getStartTime();
+            durations[slot] = task.getDuration();
+        }
+        epicIds[slot] = task.getTaskType() == TaskType.SUBTASK ? ((Subtask) task).getEpicId() : 0;
+    }
+
+    private BaseTask read(int slot) {
+        BaseTask task = switch (TASK_TYPES[types[slot]]) {
+            case TASK -> new Task(names[slot], descriptions[slot]);
+            case EPIC -> new Epic(names[slot], descriptions[slot]);
+            case SUBTASK -> {
+                Subtask subtask = new Subtask(names[slot], descriptions[slot]);
+                subtask.setEpicId(epicIds[slot]);
+                yield subtask;
+            }
+        };
+        task.setId(ids[slot]);
+        if (task.getTaskType() != TaskType.EPIC) {
+            task.setStatus(STATUSES[statuses[slot]]);
+            task.setStartTime(startTimes[slot]);
+            task.setDuration(durations[slot]);
+        }
+        return task;
+    }
+
+    private void linkLast(int slot) {
+        prev[slot] = last;
+        next[slot] = NO_SLOT;
+        if (last == NO_SLOT) {
+            first = slot;
+        } else {
+            next[last] = slot;
+        }
+        last = slot;
+    }
+
+    private void unlink(int slot) {
+        if (prev[slot] == NO_SLOT) {
+            first = next[slot];
+        } else {
+            next[prev[slot]] = next[slot];
+        }
+        if (next[slot] == NO_SLOT) {
+            last = prev[slot];
+        } else {
+            prev[next[slot]] = prev[slot];
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.model.BaseTask;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+import static ru.yandex.practicum.tasks.logic.InMemoryTaskManager.getCopyTask;
+
+//Обертка над HistoryManager, которая убирает запись истории с пути чтения.
+//add и remove только кладут событие (копия таски или id и время) в кольцевой буфер без блокировок,
+//а фоновый поток применяет события к истории в том же порядке.
+//Копия делается в add, поэтому в истории таска в состоянии на момент просмотра, а фоновый поток
+//не читает поля таски, которые в это время может менять менеджер.
+//getHistory видит события с задержкой, sync() дожидается применения всех уже добавленных событий.
+//Создается через start: фоновый поток запускается уже после конструктора
+public class AsyncHistoryManager implements HistoryManager, AutoCloseable {
+    private static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+    private static final long CONSUMER_PARK_NANOS = 1_000_000;
+
+    private final HistoryManager historyManager;
+    //под этим монитором история меняется и читается, и только под ним разбирается буфер
+    private final Object historyLock = new Object();
+
+    //буфер для нескольких писателей и одного читателя: писатель занимает позицию CAS-ом по tail,
+    //заполняет ячейку и публикует ее, записав в sequences позицию + 1.
+    //Читатель освобождает ячейку для следующего круга, записав позицию + размер буфера
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final BaseTask[] tasks;
+    private final int[] ids;
+    private final long[] timestamps;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+    private volatile long appliedPosition;
+    //потоки, которые ждут применения событий в sync() или свободной ячейки в publish().
+    //Меняется под progressLock, фоновый поток будит их, только если они есть
+    private final Object progressLock = new Object();
+    private volatile int waiterCount;
+
+    private final Thread consumer;
+    private volatile boolean consumerParked;
+    private volatile boolean closing;
+    private volatile boolean closed;
+    private volatile long maxLagNanos;
+    private volatile long failedEventCount;
+
+    public static AsyncHistoryManager start(HistoryManager historyManager) {
+        return start(historyManager, DEFAULT_BUFFER_SIZE);
+    }
+
+    //bufferSize округляется вверх до степени двойки
+    public static AsyncHistoryManager start(HistoryManager historyManager, int bufferSize) {
+        AsyncHistoryManager asyncHistoryManager = new AsyncHistoryManager(historyManager, bufferSize);
+        asyncHistoryManager.consumer.start();
+        return asyncHistoryManager;
+    }
+
+    private AsyncHistoryManager(HistoryManager historyManager, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Размер буфера должен быть больше нуля");
+        }
+        int size = Integer.highestOneBit(bufferSize);
+        if (size < bufferSize) {
+            size <<= 1;
+        }
+        this.historyManager = historyManager;
+        mask = size - 1;
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        tasks = new BaseTask[size];
+        ids = new int[size];
+        timestamps = new long[size];
+        consumer = new Thread(this::runConsumer, "history-recorder");
+        consumer.setDaemon(true);
+    }
+
+    @Override
+    public void add(BaseTask task) {
+        publish(getCopyTask(task), task.getId());
+    }
+
+    @Override
+    public List<BaseTask> getHistory() {
+        synchronized (historyLock) {
+            if (closed) {
+                drain();
+            }
+            return historyManager.getHistory();
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        publish(null, id);
+    }
+
+    @Override
+    public void setTaskSource(IntFunction<BaseTask> taskSource) {
+        historyManager.setTaskSource(taskSource);
+    }
+
+    //Ждет, пока не будут применены все события, добавленные до вызова
+    public void sync() {
+        if (closed) {
+            synchronized (historyLock) {
+                drain();
+            }
+            return;
+        }
+        awaitApplied(tail.get());
+        if (closed) {
+            sync();
+        }
+    }
+
+    //Наибольшая задержка между добавлением события и его применением к истории
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    //События, на которых история бросила исключение. Фоновый поток их пропускает и продолжает работу
+    public long getFailedEventCount() {
+        return failedEventCount;
+    }
+
+    //Применяет оставшиеся события и останавливает фоновый поток. После закрытия события применяются сразу
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closing = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (historyLock) {
+            drain();
+            closed = true;
+        }
+        synchronized (progressLock) {
+            progressLock.notifyAll();
+        }
+    }
+
+    private void publish(BaseTask task, int id) {
+        if (closed) {
+            synchronized (historyLock) {
+                drain();
+                apply(task, id);
+            }
+            return;
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                //буфер заполнен: ждем, пока фоновый поток не применит событие, занимавшее ячейку кругом раньше
+                awaitApplied(position - mask);
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+        int index = (int) position & mask;
+        tasks[index] = task;
+        ids[index] = id;
+        timestamps[index] = System.nanoTime();
+        sequences.set(index, position + 1);
+        //unpark - системный вызов, поэтому спящий поток будим, только когда буфер заполнен наполовину,
+        //в остальных случаях он сам проснется через CONSUMER_PARK_NANOS
+        if (consumerParked && position - appliedPosition >= (mask + 1) / 2) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    //Ждет, пока фоновый поток не применит события до позиции position (не включая ее), или закрытия
+    private void awaitApplied(long position) {
+        if (appliedPosition >= position) {
+            return;
+        }
+        boolean interrupted = false;
+        synchronized (progressLock) {
+            waiterCount++;
+            try {
+                while (appliedPosition < position && !closed) {
+                    LockSupport.unpark(consumer);
+                    try {
+                        progressLock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                waiterCount--;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runConsumer() {
+        while (true) {
+            int applied;
+            synchronized (historyLock) {
+                applied = drain();
+            }
+            if (applied > 0) {
+                continue;
+            }
+            if (closing) {
+                return;
+            }
+            consumerParked = true;
+            LockSupport.parkNanos(this, CONSUMER_PARK_NANOS);
+            consumerParked = false;
+        }
+    }
+
+    //Применяет опубликованные события по порядку, но не больше одного круга буфера за раз.
+    //Вызывается только под historyLock, поэтому читатель у буфера всегда один
+    private int drain() {
+        int applied = 0;
+        long firstTimestamp = 0;
+        while (applied <= mask) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            BaseTask task = tasks[index];
+            int id = ids[index];
+            if (applied == 0) {
+                firstTimestamp = timestamps[index];
+            }
+            tasks[index] = null;
+            sequences.set(index, head + mask + 1);
+            head++;
+            applied++;
+            apply(task, id);
+        }
+        if (applied > 0) {
+            maxLagNanos = Math.max(maxLagNanos, System.nanoTime() - firstTimestamp);
+            appliedPosition = head;
+            //ждущий поток сначала увеличивает waiterCount, потом проверяет appliedPosition, а здесь наоборот,
+            //поэтому хотя бы один из двух потоков увидит другого
+            if (waiterCount > 0) {
+                synchronized (progressLock) {
+                    progressLock.notifyAll();
+                }
+            }
+        }
+        return applied;
+    }
+
+    private void apply(BaseTask task, int id) {
+        try {
+            if (task != null) {
+                historyManager.add(task);
+            } else {
+                historyManager.remove(id);
+            }
+        } catch (RuntimeException e) {
+            failedEventCount++;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+//Неблокирующий вариант TaskManager: методы сразу возвращают CompletableFuture,
+//а ошибки (TaskNotFoundException, TaskAddException, ManagerSaveException) приходят через него же
+public interface AsyncTaskManager extends AutoCloseable {
+
+    //Методы, работающие с тасками всех типов
+    CompletableFuture<Void> clearTasksOfAnyTypeAsync();
+
+    //Методы, работающие с тасками определенного типа
+    CompletableFuture<Void> clearTasksAsync();
+
+    CompletableFuture<Void> clearSubTasksAsync();
+
+    CompletableFuture<Void> clearEpicsAsync();
+
+    CompletableFuture<Epic> getEpicAsync(int epicId);
+
+    CompletableFuture<Task> getTaskAsync(int taskId);
+
+    CompletableFuture<Subtask> getSubtaskAsync(int subtaskId);
+
+    CompletableFuture<List<Subtask>> getSubtasksOfEpicAsync(int epicId);
+
+    CompletableFuture<List<Task>> getListTasksAsync();
+
+    CompletableFuture<List<Epic>> getListEpicsAsync();
+
+    CompletableFuture<List<Subtask>> getListSubtasksAsync();
+
+    //add возвращает id добавленной таски
+    CompletableFuture<Integer> addAsync(Task task);
+
+    CompletableFuture<Integer> addAsync(Epic epic);
+
+    CompletableFuture<Integer> addAsync(Subtask subtask);
+
+    CompletableFuture<Void> removeTaskAsync(int id);
+
+    CompletableFuture<Void> removeSubTaskAsync(int id);
+
+    CompletableFuture<Void> removeEpicAsync(int id);
+
+    default CompletableFuture<Void> removeAsync(Task task) {
+        return removeTaskAsync(task.getId());
+    }
+
+    default CompletableFuture<Void> removeAsync(Epic epic) {
+        return removeEpicAsync(epic.getId());
+    }
+
+    default CompletableFuture<Void> removeAsync(Subtask subtask) {
+        return removeSubTaskAsync(subtask.getId());
+    }
+
+    CompletableFuture<Void> setStatusAsync(int taskId, Status status);
+
+    default CompletableFuture<Void> setStatusAsync(Task task, Status status) {
+        return setStatusAsync(task.getId(), status);
+    }
+
+    default CompletableFuture<Void> setStatusAsync(Subtask subtask, Status status) {
+        return setStatusAsync(subtask.getId(), status);
+    }
+
+    CompletableFuture<List<BaseTask>> getHistoryAsync();
+
+    CompletableFuture<List<BaseTask>> getPrioritizedTasksAsync();
+
+    //Останавливает фоновые потоки реализации
+    @Override
+    void close();
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tasks.exceptions.ManagerSaveException;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.TaskCsvParser;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+//Бинарный формат файла с тасками.
+//Заголовок: 4 байта MAGIC и байт версии. Дальше записи подряд:
+//  байт флагов: биты 0-1 - TaskType, биты 2-3 - Status, бит 4 - есть startTime, бит 5 - есть duration
+//  id (varint, zigzag), для сабтаски epicId (varint, zigzag)
+//  name и description: длина в байтах + 1 (varint, 0 - null) и байты UTF-8
+//  startTime - минуты от 01.01.1970 00:00 (varint, zigzag), duration - минуты (varint, zigzag)
+public class BinaryTaskFormat {
+    static final byte[] MAGIC = {'K', 'N', 'B', 'N'};
+    static final int VERSION = 1;
+
+    static final int TYPE_MASK = 0b11;
+    static final int STATUS_SHIFT = 2;
+    static final int STATUS_MASK = 0b11;
+    static final int HAS_START_TIME = 1 << 4;
+    static final int HAS_DURATION = 1 << 5;
+
+    private BinaryTaskFormat() {
+    }
+
+    public static boolean isBinaryFile(File file) {
+        if (file.length() < MAGIC.length) {
+            return false;
+        }
+        byte[] prefix = new byte[MAGIC.length];
+        try (InputStream in = new FileInputStream(file)) {
+            return in.readNBytes(prefix, 0, prefix.length) == prefix.length && Arrays.equals(prefix, MAGIC);
+        } catch (IOException e) {
+            throw new ManagerLoadException("Не удалось прочитать файл");
+        }
+    }
+
+    //Возвращает количество прочитанных тасок
+    public static long readTasks(File file, Consumer<BaseTask> taskConsumer) {
+        long count = 0;
+        try (BinaryTaskReader reader = new BinaryTaskReader(new FileInputStream(file))) {
+            reader.readHeader();
+            BaseTask task;
+            while ((task = reader.read()) != null) {
+                taskConsumer.accept(task);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new ManagerLoadException("Не удалось прочитать файл");
+        }
+        return count;
+    }
+
+    //Переводит файл из формата BaseTask.toString в бинарный. Возвращает количество тасок
+    public static long convertFromCsv(File csvFile, File binaryFile) {
+        if (!csvFile.exists()) {
+            throw new ManagerLoadException("Не удалось прочитать файл");
+        }
+        long count;
+        try (BinaryTaskWriter writer = new BinaryTaskWriter(new FileOutputStream(binaryFile))) {
+            writer.writeHeader();
+            count = TaskCsvParser.readTasks(csvFile.toPath(), task -> {
+                try {
+                    writer.write(task);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            throw new ManagerSaveException("Не удалось сохранить в файл");
+        } catch (IllegalStateException e) {
+            throw new ManagerLoadException(e.getMessage());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+import ru.yandex.practicum.tasks.model.enums.TaskType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+//Читает таски в формате BinaryTaskFormat через собственный буфер
+public class BinaryTaskReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    //наибольший размер массива, который выделяет JVM
+    private static final int MAX_STRING_LENGTH = Integer.MAX_VALUE - 8;
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    public BinaryTaskReader(InputStream in) {
+        this.in = in;
+    }
+
+    public void readHeader() throws IOException {
+        for (byte magicByte : BinaryTaskFormat.MAGIC) {
+            if (readByte() != magicByte) {
+                throw new IllegalStateException("Неправильный формат данных: файл не в бинарном формате");
+            }
+        }
+        int version = readByte();
+        if (version != BinaryTaskFormat.VERSION) {
+            throw new IllegalStateException("Неподдерживаемая версия бинарного формата: " + version);
+        }
+    }
+
+    //Возвращает null, когда записи закончились
+    public BaseTask read() throws IOException {
+        if (position == limit && !fill()) {
+            return null;
+        }
+        int flags = buffer[position++] & 0xFF;
+        int typeOrdinal = flags & BinaryTaskFormat.TYPE_MASK;
+        int statusOrdinal = (flags >> BinaryTaskFormat.STATUS_SHIFT) & BinaryTaskFormat.STATUS_MASK;
+        if (typeOrdinal >= TASK_TYPES.length || statusOrdinal >= STATUSES.length) {
+            throw new IllegalStateException("Неправильный формат данных: неизвестный тип или статус");
+        }
+        TaskType taskType = TASK_TYPES[typeOrdinal];
+
+        int id = (int) unZigZag(readVarLong());
+        int epicId = taskType == TaskType.SUBTASK ? (int) unZigZag(readVarLong()) : 0;
+        String name = readString();
+        String description = readString();
+        LocalDateTime startTime = null;
+        if ((flags & BinaryTaskFormat.HAS_START_TIME) != 0) {
+            startTime = LocalDateTime.ofEpochSecond(unZigZag(readVarLong()) * 60, 0, ZoneOffset.UTC);
+        }
+        Duration duration = null;
+        if ((flags & BinaryTaskFormat.HAS_DURATION) != 0) {
+            long durationInMinutes = unZigZag(readVarLong());
+            if (durationInMinutes <= 0) {
+                throw new IllegalStateException("Продолжительность должна быть больше нуля");
+            }
+            duration = Duration.ofMinutes(durationInMinutes);
+        }
+
+        BaseTask task;
+        if (taskType == TaskType.TASK) {
+            task = new Task(name, description);
+        } else if (taskType == TaskType.EPIC) {
+            task = new Epic(name, description);
+        } else {
+            Subtask subtask = new Subtask(name, description);
+            subtask.setEpicId(epicId);
+            task = subtask;
+        }
+        task.setId(id);
+        if (taskType != TaskType.EPIC) {
+            task.setStatus(STATUSES[statusOrdinal]);
+            task.setStartTime(startTime);
+            task.setDuration(duration);
+        }
+        return task;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        long lengthPlusOne = readVarLong();
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+        //varint без знака: испорченная длина может оказаться отрицательной или больше любого массива
+        if (lengthPlusOne < 0 || lengthPlusOne - 1 > MAX_STRING_LENGTH) {
+            throw new IllegalStateException("Неправильный формат данных: неправильная длина строки " + (lengthPlusOne - 1));
+        }
+        int length = (int) (lengthPlusOne - 1);
+        if (length <= limit - position) {
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+        int copied = limit - position;
+        //хвост строки читается readNBytes без выделения массива заранее: при испорченной длине
+        //памяти уйдет не больше, чем данных осталось в файле
+        byte[] tail = in.readNBytes(length - copied);
+        if (tail.length != length - copied) {
+            throw new IllegalStateException("Неправильный формат данных: файл обрывается посреди записи");
+        }
+        byte[] bytes = new byte[length];
+        System.arraycopy(buffer, position, bytes, 0, copied);
+        System.arraycopy(tail, 0, bytes, copied, tail.length);
+        position = limit;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Неправильный формат данных: слишком длинное число");
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit && !fill()) {
+            throw new IllegalStateException("Неправильный формат данных: файл обрывается посреди записи");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.enums.TaskType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+
+//Пишет таски в формате BinaryTaskFormat через собственный буфер
+public class BinaryTaskWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    //флаги, id, epicId, две длины строк, startTime, duration
+    private static final int MAX_FIXED_RECORD_SIZE = 1 + 5 + 5 + 5 + 5 + 10 + 10;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    public BinaryTaskWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public void writeHeader() throws IOException {
+        ensureCapacity(BinaryTaskFormat.MAGIC.length + 1);
+        System.arraycopy(BinaryTaskFormat.MAGIC, 0, buffer, position, BinaryTaskFormat.MAGIC.length);
+        position += BinaryTaskFormat.MAGIC.length;
+        buffer[position++] = (byte) BinaryTaskFormat.VERSION;
+    }
+
+    public void write(BaseTask task) throws IOException {
+        //у эпика время и продолжительность вычисляются по сабтаскам, хранить их незачем
+        boolean isEpic = task.getTaskType() == TaskType.EPIC;
+        boolean hasStartTime = !isEpic && task.getStartTime() != null;
+        boolean hasDuration = !isEpic && task.getDuration() != null;
+        int flags = task.getTaskType().ordinal()
+                | task.getStatus().ordinal() << BinaryTaskFormat.STATUS_SHIFT
+                | (hasStartTime ? BinaryTaskFormat.HAS_START_TIME : 0)
+                | (hasDuration ? BinaryTaskFormat.HAS_DURATION : 0);
+
+        ensureCapacity(MAX_FIXED_RECORD_SIZE);
+        buffer[position++] = (byte) flags;
+        writeVarLong(zigZag(task.getId()));
+        if (task.getTaskType() == TaskType.SUBTASK) {
+            writeVarLong(zigZag(((Subtask) task).getEpicId()));
+        }
+        writeString(task.getName());
+        writeString(task.getDescription());
+        ensureCapacity(20);
+        if (hasStartTime) {
+            writeVarLong(zigZag(Math.floorDiv(task.getStartTime().toEpochSecond(ZoneOffset.UTC), 60)));
+        }
+        if (hasDuration) {
+            writeVarLong(zigZag(task.getDuration().toMinutes()));
+        }
+    }
+
+    public void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        ensureCapacity(5);
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        if (bytes.length > buffer.length - position) {
+            out.write(buffer, 0, position);
+            position = 0;
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,415 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.exceptions.TaskAddException;
+import ru.yandex.practicum.tasks.exceptions.TaskNotFoundException;
+import ru.yandex.practicum.tasks.exceptions.WrongTaskTypeException;
+import ru.yandex.practicum.tasks.model.*;
+import ru.yandex.practicum.tasks.model.enums.Status;
+import ru.yandex.practicum.tasks.model.enums.TaskType;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static ru.yandex.practicum.tasks.logic.InMemoryTaskManager.getCopyTask;
+
+//Менеджер тасок, который можно использовать из нескольких потоков без внешней блокировки.
+//Таски лежат в конкурентных словарях, id выдает AtomicInteger, таски без времени добавляются без блокировок.
+//Блокировки:
+// - timeLock - проверка пересечения по времени и добавление в индекс времени выполняются атомарно;
+// - блокировка эпика - сабтаски эпика, его счетчики и удаление эпика вместе с сабтасками.
+//   Блокировки эпиков полосатые: эпик берет блокировку epicLocks[id эпика % lockStripes],
+//   поэтому изменения сабтасок разных эпиков идут параллельно, а число блокировок не растет с числом эпиков.
+//   Этой же блокировкой по id защищена смена статуса обычной таски;
+// - монитор historyManager - история, если она сама не потокобезопасна.
+//Порядок захвата: блокировка эпика (не больше одной за раз), затем timeLock, затем история.
+//Как и InMemoryTaskManager, методы get* возвращают хранимые объекты: их поля читаются без блокировки.
+//Очистки (clear*) применяются к каждой таске (эпику) отдельно и не атомарны целиком
+public class ConcurrentTaskManager implements TaskManager {
+    private static final int DEFAULT_LOCK_STRIPES = 64;
+
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final ConcurrentHashMap<Integer, BaseTask> tasks = new ConcurrentHashMap<>();
+    //таски каждого типа по возрастанию id: в таком порядке их возвращают списки
+    private final Map<TaskType, ConcurrentSkipListMap<Integer, BaseTask>> tasksByType = new EnumMap<>(TaskType.class);
+    //в отличие от TreeSet в InMemoryTaskManager, таски с одинаковым началом различаются по id
+    private final ConcurrentSkipListSet<BaseTask> sortedTasksByStartTime = new ConcurrentSkipListSet<>(
+            Comparator.comparing(BaseTask::getStartTime).thenComparingInt(BaseTask::getId));
+    private final TimeSpanIndex timeSpanIndex = new TimeSpanIndex();
+    private final ReentrantLock timeLock = new ReentrantLock();
+    private final ReentrantLock[] epicLocks;
+    private final HistoryManager historyManager;
+
+    public ConcurrentTaskManager(HistoryManager historyManager) {
+        this(historyManager, DEFAULT_LOCK_STRIPES);
+    }
+
+    //lockStripes округляется вверх до степени двойки
+    public ConcurrentTaskManager(HistoryManager historyManager, int lockStripes) {
+        if (lockStripes <= 0) {
+            throw new IllegalArgumentException("Количество блокировок должно быть больше нуля");
+        }
+        int stripes = Integer.highestOneBit(lockStripes);
+        if (stripes < lockStripes) {
+            stripes <<= 1;
+        }
+        epicLocks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            epicLocks[i] = new ReentrantLock();
+        }
+        this.historyManager = historyManager;
+        historyManager.setTaskSource(this::findTask);
+        for (TaskType taskType : TaskType.values()) {
+            tasksByType.put(taskType, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    private BaseTask addBaseTask(BaseTask task) {
+        BaseTask copyTask = getCopyTask(task);
+        if (copyTask.getStartTime() == null) {
+            register(task, copyTask);
+            return copyTask;
+        }
+        timeLock.lock();
+        try {
+            if (timeSpanIndex.hasOverlap(copyTask.getStartTime(), copyTask.getEndTime())) {
+                throw new TaskAddException("Есть пересечение с уже существующими тасками");
+            }
+            register(task, copyTask);
+            sortedTasksByStartTime.add(copyTask);
+            timeSpanIndex.add(copyTask);
+        } finally {
+            timeLock.unlock();
+        }
+        return copyTask;
+    }
+
+    private void register(BaseTask task, BaseTask copyTask) {
+        int taskId = nextId.getAndIncrement();
+        task.setId(taskId);
+        copyTask.setId(taskId);
+        tasks.put(taskId, copyTask);
+        tasksByType.get(copyTask.getTaskType()).put(taskId, copyTask);
+    }
+
+    //Возвращает false, если таску уже удалил другой поток
+    private boolean deleteTask(BaseTask task) {
+        if (!tasks.remove(task.getId(), task)) {
+            return false;
+        }
+        tasksByType.get(task.getTaskType()).remove(task.getId());
+        if (task.getStartTime() != null) {
+            timeLock.lock();
+            try {
+                sortedTasksByStartTime.remove(task);
+                timeSpanIndex.remove(task);
+            } finally {
+                timeLock.unlock();
+            }
+        }
+        return true;
+    }
+
+    //id выдаются подряд, поэтому остаток от деления распределяет эпики по блокировкам равномерно
+    private ReentrantLock lockFor(int id) {
+        return epicLocks[id & (epicLocks.length - 1)];
+    }
+
+    //Удаляет эпик вместе с сабтасками. Вызывается под блокировкой эпика
+    private boolean deleteEpic(Epic epic) {
+        if (tasks.get(epic.getId()) != epic) {
+            return false;
+        }
+        for (Subtask subtask : epic.getSubtasks()) {
+            deleteTask(subtask);
+        }
+        return deleteTask(epic);
+    }
+
+    private BaseTask findTask(int id) {
+        return tasks.get(id);
+    }
+
+    private BaseTask getTaskOfAnyType(int id) {
+        BaseTask task = tasks.get(id);
+        if (task == null) {
+            throw new TaskNotFoundException("Не найден таск с id = " + id);
+        }
+        return task;
+    }
+
+    private void ensureTaskIsTask(BaseTask task) {
+        if (!task.getTaskType().equals(TaskType.TASK)) {
+            throw new WrongTaskTypeException("Задача не является таском");
+        }
+    }
+
+    private void ensureTaskIsSubTask(BaseTask task) {
+        if (!task.getTaskType().equals(TaskType.SUBTASK)) {
+            throw new WrongTaskTypeException("Задача не является сабтаском");
+        }
+    }
+
+    private void ensureTaskIsEpic(BaseTask task) {
+        if (!task.getTaskType().equals(TaskType.EPIC)) {
+            throw new WrongTaskTypeException("Задача не является эпиком");
+        }
+    }
+
+    private void addToHistory(BaseTask task) {
+        synchronized (historyManager) {
+            historyManager.add(task);
+        }
+    }
+
+    private void addToHistory(Collection<? extends BaseTask> tasks) {
+        synchronized (historyManager) {
+            historyManager.addAll(tasks);
+        }
+    }
+
+    //Id не сбрасываются: иначе таска, параллельно добавляемая другим потоком, могла бы получить занятый id
+    @Override
+    public void clearTasksOfAnyType() {
+        clearTasks();
+        clearEpics();
+    }
+
+    @Override
+    public void clearTasks() {
+        for (BaseTask task : tasksByType.get(TaskType.TASK).values()) {
+            deleteTask(task);
+        }
+    }
+
+    @Override
+    public void clearSubTasks() {
+        for (BaseTask task : tasksByType.get(TaskType.EPIC).values()) {
+            Epic epic = (Epic) task;
+            ReentrantLock lock = lockFor(epic.getId());
+            lock.lock();
+            try {
+                for (Subtask subtask : epic.getSubtasks()) {
+                    deleteTask(subtask);
+                }
+                epic.clearSubtasks();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void clearEpics() {
+        for (BaseTask task : tasksByType.get(TaskType.EPIC).values()) {
+            ReentrantLock lock = lockFor(task.getId());
+            lock.lock();
+            try {
+                deleteEpic((Epic) task);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private <T extends BaseTask> List<T> getTasksOfType(TaskType taskType, Class<T> taskClass) {
+        List<T> result = new ArrayList<>();
+        tasksByType.get(taskType).values().forEach(task -> result.add(taskClass.cast(task)));
+        addToHistory(result);
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public Epic getEpic(int epicId) {
+        BaseTask task = getTaskOfAnyType(epicId);
+        ensureTaskIsEpic(task);
+        addToHistory(task);
+        return (Epic) task;
+    }
+
+    @Override
+    public Task getTask(int taskId) {
+        BaseTask task = getTaskOfAnyType(taskId);
+        ensureTaskIsTask(task);
+        addToHistory(task);
+        return (Task) task;
+    }
+
+    @Override
+    public Subtask getSubtask(int subtaskId) {
+        BaseTask task = getTaskOfAnyType(subtaskId);
+        ensureTaskIsSubTask(task);
+        addToHistory(task);
+        return (Subtask) task;
+    }
+
+    @Override
+    public List<Subtask> getSubtasksOfEpic(int epicId) {
+        BaseTask task = getTaskOfAnyType(epicId);
+        ensureTaskIsEpic(task);
+        List<Subtask> result;
+        ReentrantLock lock = lockFor(epicId);
+        lock.lock();
+        try {
+            result = ((Epic) task).getSubtasks();
+        } finally {
+            lock.unlock();
+        }
+        addToHistory(result);
+        return result;
+    }
+
+    @Override
+    public List<Task> getListTasks() {
+        return getTasksOfType(TaskType.TASK, Task.class);
+    }
+
+    @Override
+    public List<Epic> getListEpics() {
+        return getTasksOfType(TaskType.EPIC, Epic.class);
+    }
+
+    @Override
+    public List<Subtask> getListSubtasks() {
+        return getTasksOfType(TaskType.SUBTASK, Subtask.class);
+    }
+
+    @Override
+    public void add(Task task) {
+        addBaseTask(task);
+    }
+
+    @Override
+    public void add(Epic epic) {
+        addBaseTask(epic);
+    }
+
+    //Под блокировкой эпика: эпик не может быть удален, пока в него добавляется сабтаска.
+    //Из общих структур здесь только короткие участки: AtomicInteger для id и timeLock для таски со временем
+    @Override
+    public void add(Subtask subtask) {
+        BaseTask potentialEpic = getTaskOfAnyType(subtask.getEpicId());
+        ensureTaskIsEpic(potentialEpic);
+        Epic epic = (Epic) potentialEpic;
+        ReentrantLock lock = lockFor(epic.getId());
+        lock.lock();
+        try {
+            if (tasks.get(epic.getId()) != epic) {
+                throw new TaskNotFoundException("Не найден таск с id = " + epic.getId());
+            }
+            BaseTask copyTask = addBaseTask(subtask);
+            epic.addSubtask((Subtask) copyTask);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeTask(int id) {
+        BaseTask task = getTaskOfAnyType(id);
+        ensureTaskIsTask(task);
+        if (!deleteTask(task)) {
+            throw new TaskNotFoundException("Не найден таск с id = " + id);
+        }
+    }
+
+    @Override
+    public void removeSubTask(int id) {
+        Subtask subtask = getSubtask(id);
+        Epic epic = getEpic(subtask.getEpicId());
+        ReentrantLock lock = lockFor(epic.getId());
+        lock.lock();
+        try {
+            if (!deleteTask(subtask)) {
+                throw new TaskNotFoundException("Не найден таск с id = " + id);
+            }
+            epic.removeSubtask(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeEpic(int id) {
+        BaseTask task = getTaskOfAnyType(id);
+        ensureTaskIsEpic(task);
+        ReentrantLock lock = lockFor(id);
+        lock.lock();
+        try {
+            if (!deleteEpic((Epic) task)) {
+                throw new TaskNotFoundException("Не найден таск с id = " + id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(Task task) {
+        removeTask(task.getId());
+    }
+
+    @Override
+    public void remove(Epic epic) {
+        removeEpic(epic.getId());
+    }
+
+    @Override
+    public void remove(Subtask task) {
+        removeSubTask(task.getId());
+    }
+
+    @Override
+    public void setStatus(int taskId, Status status) {
+        BaseTask task = getTaskOfAnyType(taskId);
+        if (task.getTaskType() == TaskType.EPIC) {
+            throw new WrongTaskTypeException("Нельзя менять статус эпику!");
+        }
+        if (task.getTaskType() == TaskType.SUBTASK) {
+            Epic epic = getEpic(((Subtask) task).getEpicId());
+            ReentrantLock lock = lockFor(epic.getId());
+            lock.lock();
+            try {
+                if (tasks.get(taskId) != task) {
+                    throw new TaskNotFoundException("Не найден таск с id = " + taskId);
+                }
+                epic.setSubtaskStatus(taskId, status);
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            ReentrantLock lock = lockFor(taskId);
+            lock.lock();
+            try {
+                task.setStatus(status);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void setStatus(Task task, Status status) {
+        setStatus(task.getId(), status);
+    }
+
+    @Override
+    public void setStatus(Subtask subtask, Status status) {
+        setStatus(subtask.getId(), status);
+    }
+
+    @Override
+    public List<BaseTask> getHistory() {
+        synchronized (historyManager) {
+            return historyManager.getHistory();
+        }
+    }
+
+    @Override
+    public List<BaseTask> getPrioritizedTasks() {
+        return sortedTasksByStartTime.stream().toList();
+    }
+}
@@ -0,0 +1,450 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.exceptions.ManagerSaveException;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+//Потокобезопасный менеджер без блокировок на стороне вызывающих потоков.
+//Каждый вызов превращается в команду в очереди без блокировок (много писателей, один читатель),
+//а единственный поток "task-manager-writer" владеет InMemoryTaskManager и применяет команды пачками.
+//Методы *Async возвращают CompletableFuture, методы TaskManager дожидаются результата.
+//Чтения тоже идут через очередь: так менеджер никогда не трогают два потока одновременно.
+//Если менеджер - FileBackedTaskManager, пачка сохраняется один раз (runBatch),
+//и результаты команд пачки отдаются только после сохранения, так что запись на диск не держит вызывающие потоки.
+//Результаты отдаются в потоке-писателе: продолжения future, которые сами долго работают,
+//лучше вешать через *Async-методы CompletableFuture, а синхронные методы менеджера из них вызывать нельзя.
+//Создается через start: поток-писатель запускается уже после конструктора.
+//close закрывает и сам менеджер, если он AutoCloseable (например, сбрасывает журнал FileBackedTaskManager)
+public class EventLoopTaskManager implements TaskManager, AsyncTaskManager {
+    private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final InMemoryTaskManager taskManager;
+    private final int maxBatchSize;
+    private final ConcurrentLinkedQueue<Command<?>> commands = new ConcurrentLinkedQueue<>();
+
+    private final Thread writer;
+    private volatile boolean writerParked;
+    private volatile boolean closed;
+    private volatile long batchCount;
+    private volatile long commandCount;
+
+    public static EventLoopTaskManager start(InMemoryTaskManager taskManager) {
+        return start(taskManager, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public static EventLoopTaskManager start(InMemoryTaskManager taskManager, int maxBatchSize) {
+        EventLoopTaskManager eventLoopTaskManager = new EventLoopTaskManager(taskManager, maxBatchSize);
+        eventLoopTaskManager.writer.start();
+        return eventLoopTaskManager;
+    }
+
+    private EventLoopTaskManager(InMemoryTaskManager taskManager, int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Размер пачки должен быть больше нуля");
+        }
+        this.taskManager = taskManager;
+        this.maxBatchSize = maxBatchSize;
+        writer = new Thread(this::runWriter, "task-manager-writer");
+        writer.setDaemon(true);
+    }
+
+    @Override
+    public CompletableFuture<Integer> addAsync(Task task) {
+        return submit(() -> {
+            taskManager.add(task);
+            return task.getId();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> addAsync(Epic epic) {
+        return submit(() -> {
+            taskManager.add(epic);
+            return epic.getId();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> addAsync(Subtask subtask) {
+        return submit(() -> {
+            taskManager.add(subtask);
+            return subtask.getId();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> removeTaskAsync(int id) {
+        return submitAction(() -> taskManager.removeTask(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> removeSubTaskAsync(int id) {
+        return submitAction(() -> taskManager.removeSubTask(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> removeEpicAsync(int id) {
+        return submitAction(() -> taskManager.removeEpic(id));
+    }
+
+    @Override
+    public CompletableFuture<Void> setStatusAsync(int taskId, Status status) {
+        return submitAction(() -> taskManager.setStatus(taskId, status));
+    }
+
+    @Override
+    public CompletableFuture<Void> clearTasksOfAnyTypeAsync() {
+        return submitAction(taskManager::clearTasksOfAnyType);
+    }
+
+    @Override
+    public CompletableFuture<Void> clearTasksAsync() {
+        return submitAction(taskManager::clearTasks);
+    }
+
+    @Override
+    public CompletableFuture<Void> clearSubTasksAsync() {
+        return submitAction(taskManager::clearSubTasks);
+    }
+
+    @Override
+    public CompletableFuture<Void> clearEpicsAsync() {
+        return submitAction(taskManager::clearEpics);
+    }
+
+    @Override
+    public CompletableFuture<Epic> getEpicAsync(int epicId) {
+        return submit(() -> taskManager.getEpic(epicId));
+    }
+
+    @Override
+    public CompletableFuture<Task> getTaskAsync(int taskId) {
+        return submit(() -> taskManager.getTask(taskId));
+    }
+
+    @Override
+    public CompletableFuture<Subtask> getSubtaskAsync(int subtaskId) {
+        return submit(() -> taskManager.getSubtask(subtaskId));
+    }
+
+    @Override
+    public CompletableFuture<List<Subtask>> getSubtasksOfEpicAsync(int epicId) {
+        return submit(() -> taskManager.getSubtasksOfEpic(epicId));
+    }
+
+    @Override
+    public CompletableFuture<List<Task>> getListTasksAsync() {
+        return submit(taskManager::getListTasks);
+    }
+
+    @Override
+    public CompletableFuture<List<Epic>> getListEpicsAsync() {
+        return submit(taskManager::getListEpics);
+    }
+
+    @Override
+    public CompletableFuture<List<Subtask>> getListSubtasksAsync() {
+        return submit(taskManager::getListSubtasks);
+    }
+
+    @Override
+    public CompletableFuture<List<BaseTask>> getHistoryAsync() {
+        return submit(taskManager::getHistory);
+    }
+
+    @Override
+    public CompletableFuture<List<BaseTask>> getPrioritizedTasksAsync() {
+        return submit(taskManager::getPrioritizedTasks);
+    }
+
+    //Сколько пачек и команд применил поток-писатель
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    @Override
+    public void clearTasksOfAnyType() {
+        join(clearTasksOfAnyTypeAsync());
+    }
+
+    @Override
+    public void clearTasks() {
+        join(clearTasksAsync());
+    }
+
+    @Override
+    public void clearSubTasks() {
+        join(clearSubTasksAsync());
+    }
+
+    @Override
+    public void clearEpics() {
+        join(clearEpicsAsync());
+    }
+
+    @Override
+    public Epic getEpic(int epicId) {
+        return join(getEpicAsync(epicId));
+    }
+
+    @Override
+    public Task getTask(int taskId) {
+        return join(getTaskAsync(taskId));
+    }
+
+    @Override
+    public Subtask getSubtask(int subtaskId) {
+        return join(getSubtaskAsync(subtaskId));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksOfEpic(int epicId) {
+        return join(getSubtasksOfEpicAsync(epicId));
+    }
+
+    @Override
+    public List<Task> getListTasks() {
+        return join(getListTasksAsync());
+    }
+
+    @Override
+    public List<Epic> getListEpics() {
+        return join(getListEpicsAsync());
+    }
+
+    @Override
+    public List<Subtask> getListSubtasks() {
+        return join(getListSubtasksAsync());
+    }
+
+    @Override
+    public void add(Task task) {
+        join(addAsync(task));
+    }
+
+    @Override
+    public void add(Epic epic) {
+        join(addAsync(epic));
+    }
+
+    @Override
+    public void add(Subtask subtask) {
+        join(addAsync(subtask));
+    }
+
+    @Override
+    public void removeTask(int id) {
+        join(removeTaskAsync(id));
+    }
+
+    @Override
+    public void removeSubTask(int id) {
+        join(removeSubTaskAsync(id));
+    }
+
+    @Override
+    public void removeEpic(int id) {
+        join(removeEpicAsync(id));
+    }
+
+    @Override
+    public void remove(Task task) {
+        removeTask(task.getId());
+    }
+
+    @Override
+    public void remove(Epic epic) {
+        removeEpic(epic.getId());
+    }
+
+    @Override
+    public void remove(Subtask task) {
+        removeSubTask(task.getId());
+    }
+
+    @Override
+    public void setStatus(int taskId, Status status) {
+        join(setStatusAsync(taskId, status));
+    }
+
+    @Override
+    public void setStatus(Task task, Status status) {
+        setStatus(task.getId(), status);
+    }
+
+    @Override
+    public void setStatus(Subtask subtask, Status status) {
+        setStatus(subtask.getId(), status);
+    }
+
+    @Override
+    public List<BaseTask> getHistory() {
+        return join(getHistoryAsync());
+    }
+
+    @Override
+    public List<BaseTask> getPrioritizedTasks() {
+        return join(getPrioritizedTasksAsync());
+    }
+
+    //Новые команды больше не принимаются, уже поставленные в очередь применяются до остановки потока
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        //команды, поставленные одновременно с закрытием, уже никто не применит
+        Command<?> command;
+        while ((command = commands.poll()) != null) {
+            command.result.completeExceptionally(new IllegalStateException("Менеджер закрыт"));
+        }
+        //поток-писатель остановлен, теперь к менеджеру можно обратиться из этого потока
+        if (taskManager instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ManagerSaveException("Не удалось закрыть менеджер: " + e.getMessage());
+            }
+        }
+    }
+
+    private CompletableFuture<Void> submitAction(Runnable action) {
+        return submit(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> action) {
+        if (closed) {
+            throw new IllegalStateException("Менеджер закрыт");
+        }
+        Command<T> command = new Command<>(action);
+        commands.offer(command);
+        if (closed && commands.remove(command)) {
+            //менеджер закрыли, пока команда ставилась в очередь, и поток-писатель ее уже не возьмет
+            throw new IllegalStateException("Менеджер закрыт");
+        }
+        //поток-писатель сначала ставит writerParked, потом проверяет очередь,
+        //а здесь наоборот, поэтому хотя бы один из двух потоков увидит другого
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        return command.result;
+    }
+
+    //Исключение команды бросается как есть, а не завернутым в CompletionException.
+    //Поток-писатель не может ждать собственную команду, иначе он заблокируется навсегда
+    private <T> T join(CompletableFuture<T> future) {
+        if (Thread.currentThread() == writer) {
+            throw new IllegalStateException("Синхронный вызов менеджера из его потока-писателя");
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void runWriter() {
+        List<Command<?>> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            Command<?> command;
+            while (batch.size() < maxBatchSize && (command = commands.poll()) != null) {
+                batch.add(command);
+            }
+            if (!batch.isEmpty()) {
+                applyBatch(batch);
+                batch.clear();
+                continue;
+            }
+            if (closed) {
+                //команды, поставленные в очередь до закрытия, должны быть применены
+                if (commands.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            writerParked = true;
+            if (commands.isEmpty() && !closed) {
+                LockSupport.park(this);
+            }
+            writerParked = false;
+        }
+    }
+
+    private void applyBatch(List<Command<?>> batch) {
+        RuntimeException saveError = null;
+        try {
+            if (taskManager instanceof FileBackedTaskManager fileBackedTaskManager) {
+                fileBackedTaskManager.runBatch(() -> batch.forEach(Command::execute));
+            } else {
+                batch.forEach(Command::execute);
+            }
+        } catch (RuntimeException e) {
+            //изменения пачки уже в памяти, но не сохранены: сообщаем об этом всем командам пачки
+            saveError = e;
+        }
+        batchCount++;
+        commandCount += batch.size();
+        for (Command<?> command : batch) {
+            command.complete(saveError);
+        }
+    }
+
+    private static class Command<T> {
+        private final Supplier<T> action;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private RuntimeException error;
+
+        Command(Supplier<T> action) {
+            this.action = action;
+        }
+
+        void execute() {
+            try {
+                value = action.get();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+        }
+
+        void complete(RuntimeException saveError) {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else if (saveError != null) {
+                result.completeExceptionally(saveError);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
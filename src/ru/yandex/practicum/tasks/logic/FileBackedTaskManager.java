@@ -2,170 +2,601 @@ package ru.yandex.practicum.tasks.logic;
 
 import ru.yandex.practicum.tasks.exceptions.ManagerLoadException;
 import ru.yandex.practicum.tasks.exceptions.ManagerSaveException;
+import ru.yandex.practicum.tasks.logic.enums.DurabilityPolicy;
+import ru.yandex.practicum.tasks.logic.enums.JournalOperation;
+import ru.yandex.practicum.tasks.logic.enums.StorageFormat;
 import ru.yandex.practicum.tasks.model.BaseTask;
 import ru.yandex.practicum.tasks.model.Epic;
 import ru.yandex.practicum.tasks.model.Subtask;
 import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.TaskCsvParser;
 import ru.yandex.practicum.tasks.model.enums.Status;
 import ru.yandex.practicum.tasks.model.enums.TaskType;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class FileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
+    private static final String JOURNAL_SUFFIX = ".wal";
+    private static final String ROTATED_JOURNAL_SUFFIX = ".wal.old";
+    private static final String TEMP_SUFFIX = ".tmp";
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
     private final String filename;
+    private final StorageSettings settings;
+    private final TaskJournal journal;
+    private ExecutorService compactionExecutor;
+    private Future<?> compaction;
+    private volatile boolean lastCompactionFailed;
+    private final Object saveLock = new Object();
+    private ScheduledExecutorService writeBehindExecutor;
+    //после close отложенная запись больше не работает: изменения сохраняются сразу
+    private boolean closed;
+    private boolean dirty;
+    private LoadStatistics loadStatistics = new LoadStatistics(0, 0, 0);
+    private int maxRestoredId;
+    private long journalBytes;
+    //> 0 - идут операции runBatch: снимок пишется и запись журнала ожидается один раз в конце пачки
+    private int batchDepth;
+    private boolean batchDirty;
+    private long batchSequence;
 
     public FileBackedTaskManager(String filename, HistoryManager historyManager) {
+        this(filename, historyManager, new StorageSettings());
+    }
+
+    public FileBackedTaskManager(String filename, HistoryManager historyManager, StorageSettings settings) {
         super(historyManager);
         this.filename = filename;
+        this.settings = settings;
+        this.journal = settings.isJournalEnabled()
+                ? new TaskJournal(new File(filename + JOURNAL_SUFFIX), settings.getDurabilityPolicy(),
+                        settings.getGroupCommitMaxRecords(), settings.getGroupCommitIntervalMillis())
+                : null;
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file.getAbsolutePath(), new InMemoryHistoryManager());
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                lines.add(line);
+        return loadFromFile(file, new StorageSettings());
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, StorageSettings settings) {
+        long startNanos = System.nanoTime();
+        InMemoryHistoryManager historyManager = new InMemoryHistoryManager();
+        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file.getAbsolutePath(), historyManager, settings);
+        //таски восстанавливаются сразу при чтении, в памяти копятся только сабтаски, эпик которых еще не встретился
+        List<Subtask> subtasksWithoutEpic = new ArrayList<>();
+        Consumer<BaseTask> taskConsumer = task -> {
+            if (task.getTaskType() == TaskType.SUBTASK && fileBackedTaskManager.findTask(((Subtask) task).getEpicId()) == null) {
+                subtasksWithoutEpic.add((Subtask) task);
+            } else {
+                fileBackedTaskManager.restore(task);
+            }
+        };
+        //restore не вызывает save: файл уже содержит все эти таски, перезаписывать его незачем
+        long taskCount;
+        try {
+            if (BinaryTaskFormat.isBinaryFile(file)) {
+                taskCount = BinaryTaskFormat.readTasks(file, taskConsumer);
+            } else if (settings.isParallelLoadEnabled() && settings.getParallelLoadChunkSize() > 0
+                    && file.length() > settings.getParallelLoadChunkSize()) {
+                taskCount = ParallelTaskLoader.readTasks(file, settings.getParallelLoadChunkSize(), taskConsumer);
+            } else {
+                taskCount = TaskCsvParser.readTasks(file.toPath(), taskConsumer);
             }
+            //если эпика сабтаски так и не нашлось, restore кинет TaskNotFoundException
+            subtasksWithoutEpic.forEach(fileBackedTaskManager::restore);
         } catch (IOException e) {
             throw new ManagerLoadException("Не удалось прочитать файл");
-        }
-
-        List<BaseTask> baseTasks;
-        try {
-            baseTasks = lines.stream().map(BaseTask::fromString).toList();
         } catch (IllegalStateException e) {
             throw new ManagerLoadException(e.getMessage());
         }
 
-        //сначала восстанавливаем эпики и только потом сабтаски (так как они кладутся в эпики)
-        //таски сами по себе, поэтому можно восстановить их первым или последними
+        //журнал дописывается поверх снимка, поэтому проигрываем его после загрузки снимка
+        long journalRecords = fileBackedTaskManager.replayJournal();
+        //при проигрывании журнала вызываются методы менеджера, которые пишут в историю
+        historyManager.getHistory().forEach(task -> historyManager.remove(task.getId()));
+
+        //устанавливаем новое значение счетчика (максимальное значение счетчика из файла + 1)
+        fileBackedTaskManager.setStartNextId(fileBackedTaskManager.maxRestoredId + 1);
+        fileBackedTaskManager.loadStatistics = new LoadStatistics(taskCount + journalRecords,
+                file.length() + fileBackedTaskManager.journalBytes, System.nanoTime() - startNanos);
+
+        return fileBackedTaskManager;
+    }
+
+    public LoadStatistics getLoadStatistics() {
+        return loadStatistics;
+    }
+
+    public JournalStatistics getJournalStatistics() {
+        return journal != null ? journal.getStatistics() : new JournalStatistics(0, 0, 0, 0);
+    }
+
+    private void restore(BaseTask task) {
+        super.put(task);
+        maxRestoredId = Math.max(maxRestoredId, task.getId());
+    }
+
+    //Проигрывание журнала идемпотентно: уже существующие таски не добавляются повторно,
+    //а операции над отсутствующими тасками пропускаются.
+    //Поэтому журнал, оставшийся от незавершенного сжатия, можно безопасно проиграть поверх нового снимка
+    private long replayJournal() {
+        TaskJournal rotatedJournal = new TaskJournal(new File(filename + ROTATED_JOURNAL_SUFFIX));
+        TaskJournal currentJournal = journal != null ? journal : new TaskJournal(new File(filename + JOURNAL_SUFFIX));
+        boolean hasRotatedJournal = rotatedJournal.getFile().exists();
+        journalBytes = rotatedJournal.getSize() + currentJournal.getSize();
         try {
-            baseTasks.stream().filter(task -> task.getTaskType() == TaskType.TASK).forEach(fileBackedTaskManager::put);
-            baseTasks.stream().filter(task -> task.getTaskType() == TaskType.EPIC).forEach(fileBackedTaskManager::put);
-            baseTasks.stream().filter(task -> task.getTaskType() == TaskType.SUBTASK).forEach(fileBackedTaskManager::put);
+            rotatedJournal.replay(this::applyJournalRecord);
+            currentJournal.replay(this::applyJournalRecord);
         } catch (IllegalStateException e) {
             throw new ManagerLoadException(e.getMessage());
         }
+        long journalRecords = rotatedJournal.getRecordCount() + currentJournal.getRecordCount();
 
-        //устанавливаем новое значение счетчика (максимальное значение счетчика из файла + 1)
-        int nextId = baseTasks.stream().map(BaseTask::getId).reduce(0, Integer::max) + 1;
-        fileBackedTaskManager.setStartNextId(nextId);
+        if (journal != null && !hasRotatedJournal) {
+            journal.open(false);
+        } else if (journal != null) {
+            //прошлое сжатие не успело завершиться: доделываем его сразу
+            try {
+                writeSnapshot(captureSnapshot(), true);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Не удалось сохранить снимок");
+            }
+            rotatedJournal.delete();
+            journal.open(true);
+        } else if (journalRecords > 0 || hasRotatedJournal) {
+            //журнал остался от режима журналирования, переносим его в снимок
+            save();
+            rotatedJournal.delete();
+            currentJournal.delete();
+        }
+        return journalRecords;
+    }
 
-        return fileBackedTaskManager;
+    //Любая ошибка разбора записи - IllegalStateException, replayJournal превращает ее в ManagerLoadException
+    private void applyJournalRecord(String record) {
+        String[] parts = record.split(",", 2);
+        if (parts.length < 2) {
+            throw new IllegalStateException("Неправильный формат записи журнала: " + record);
+        }
+        JournalOperation operation;
+        try {
+            operation = JournalOperation.valueOf(parts[0]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Неизвестная операция журнала: " + parts[0]);
+        }
+        switch (operation) {
+            case ADD -> {
+                BaseTask task = BaseTask.fromString(parts[1]);
+                if (findTask(task.getId()) == null) {
+                    restore(task);
+                }
+            }
+            case STATUS -> {
+                String[] arguments = parts[1].split(",");
+                if (arguments.length != 2) {
+                    throw new IllegalStateException("Неправильный формат записи журнала: " + record);
+                }
+                int id = parseJournalId(arguments[0]);
+                Status status;
+                try {
+                    status = Status.valueOf(arguments[1]);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalStateException("Неизвестный статус в записи журнала: " + arguments[1]);
+                }
+                BaseTask task = findTask(id);
+                if (task != null && task.getTaskType() != TaskType.EPIC) {
+                    super.setStatus(id, status);
+                }
+            }
+            case REMOVE -> {
+                BaseTask task = findTask(parseJournalId(parts[1]));
+                if (task != null) {
+                    switch (task.getTaskType()) {
+                        case TASK -> super.removeTask(task.getId());
+                        case EPIC -> super.removeEpic(task.getId());
+                        case SUBTASK -> super.removeSubTask(task.getId());
+                    }
+                }
+            }
+            case CLEAR -> {
+                switch (parts[1]) {
+                    case "TASK" -> super.clearTasks();
+                    case "EPIC" -> super.clearEpics();
+                    case "SUBTASK" -> super.clearSubTasks();
+                    case TaskJournal.CLEAR_ALL -> {
+                        super.clearTasksOfAnyType();
+                        maxRestoredId = 0;
+                    }
+                    default -> throw new IllegalStateException("Неправильный формат записи журнала: " + record);
+                }
+            }
+        }
+    }
+
+    private static int parseJournalId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Неправильный формат записи журнала: id должен быть целым числом");
+        }
     }
 
     private void save() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filename))) {
+        try (FileOutputStream fos = new FileOutputStream(filename)) {
+            writeTasks(fos);
+            //снимок каждый раз пишется целиком, объединять нечего: для EVERY_OP и GROUP_COMMIT просто ждем записи на диск
+            if (settings.getDurabilityPolicy() != DurabilityPolicy.OS_BUFFERED) {
+                fos.getFD().sync();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось сохранить в файл");
+        }
+        if (journal != null && closed) {
+            //снимок закрытого менеджера новее журнала: при загрузке старые записи проигрались бы поверх него
+            journal.delete();
+            try {
+                Files.deleteIfExists(new File(filename + ROTATED_JOURNAL_SUFFIX).toPath());
+            } catch (IOException e) {
+                throw new ManagerSaveException("Не удалось удалить журнал");
+            }
+        }
+    }
+
+    private void writeTasks(OutputStream out) throws IOException {
+        if (settings.getStorageFormat() == StorageFormat.BINARY) {
+            BinaryTaskWriter writer = new BinaryTaskWriter(out);
+            writer.writeHeader();
+            for (BaseTask task : getAllTasksOfAnyType()) {
+                writer.write(task);
+            }
+            writer.flush();
+        } else {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out));
             for (BaseTask task : getAllTasksOfAnyType()) {
                 writer.write(task.toString() + "\n");
             }
+            writer.flush();
+        }
+    }
+
+    //Сохранение после изменяющей операции: в режиме журнала дописывается одна запись,
+    //в режиме отложенной записи менеджер только помечается измененным, иначе файл перезаписывается целиком.
+    //Возвращает номер записи журнала, которую нужно дождаться, или 0
+    private long persist(Supplier<String> journalRecord) {
+        if (journal == null && settings.getWriteBehindIntervalMillis() > 0 && !closed) {
+            dirty = true;
+            startWriteBehind();
+        } else if (journal == null || closed) {
+            //после close журнал не открывается заново: изменения сохраняются полным снимком (см. save)
+            if (batchDepth > 0) {
+                batchDirty = true;
+            } else {
+                save();
+            }
+        } else if (!journal.isOpen()) {
+            //менеджер создан не из файла: начинаем с полного снимка текущего состояния и пустого журнала
+            save();
+            journal.open(true);
+        } else {
+            long sequence = journal.append(journalRecord.get());
+            compactIfNeeded();
+            return sequence;
+        }
+        return 0;
+    }
+
+    private void startWriteBehind() {
+        if (writeBehindExecutor != null) {
+            return;
+        }
+        writeBehindExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind-saver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.getWriteBehindIntervalMillis();
+        writeBehindExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                saveIfDirty();
+            } catch (ManagerSaveException e) {
+                //менеджер остался помеченным, попробуем на следующем шаге; ошибку получит flush()
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    //Все изменения, накопленные за интервал, уходят на диск одной перезаписью снимка.
+    //saveLock не дает двум сохранениям записать снимки в обратном порядке
+    private void saveIfDirty() {
+        synchronized (saveLock) {
+            byte[] snapshot;
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                snapshot = captureSnapshot();
+            }
+            try {
+                writeSnapshot(snapshot, settings.getDurabilityPolicy() != DurabilityPolicy.OS_BUFFERED);
+            } catch (IOException e) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw new ManagerSaveException("Не удалось сохранить в файл");
+            }
+        }
+    }
+
+    //Снимок состояния в памяти: снимается под монитором менеджера, а на диск пишется уже без него
+    private byte[] captureSnapshot() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeTasks(out);
         } catch (IOException e) {
-            throw new ManagerSaveException("Не удалось сохранить в файл");
+            throw new ManagerSaveException("Не удалось сохранить снимок");
+        }
+        return out.toByteArray();
+    }
+
+    //Снимок пишется во временный файл и атомарно подменяет основной
+    private void writeSnapshot(byte[] snapshot, boolean sync) throws IOException {
+        File tempFile = new File(filename + TEMP_SUFFIX);
+        try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+            fos.write(snapshot);
+            if (sync) {
+                fos.getFD().sync();
+            }
+        }
+        Files.move(tempFile.toPath(), Path.of(filename), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void compactIfNeeded() {
+        if (lastCompactionFailed || (compaction != null && !compaction.isDone())) {
+            return;
+        }
+        long recordThreshold = settings.getCompactionRecordThreshold();
+        long sizeThreshold = settings.getCompactionSizeThreshold();
+        if ((recordThreshold > 0 && journal.getRecordCount() >= recordThreshold)
+                || (sizeThreshold > 0 && journal.getSize() >= sizeThreshold)) {
+            startCompaction();
+        }
+    }
+
+    //Под вызывающим потоком только снимаются строки текущего состояния и переименовывается журнал,
+    //запись снимка на диск идет в фоне, новые операции в это время пишутся в новый журнал
+    private Future<?> startCompaction() {
+        if (compaction != null && !compaction.isDone()) {
+            return compaction;
+        }
+        File rotatedJournalFile = new File(filename + ROTATED_JOURNAL_SUFFIX);
+        byte[] snapshot = captureSnapshot();
+        //если прошлое сжатие не удалось, переименованный журнал еще лежит на диске.
+        //Новый снимок покроет и его, и текущий журнал, поэтому текущий журнал не трогаем
+        if (!rotatedJournalFile.exists()) {
+            journal.rotateTo(rotatedJournalFile);
+        }
+        compaction = getCompactionExecutor().submit(() -> {
+            try {
+                writeSnapshot(snapshot, true);
+                Files.deleteIfExists(rotatedJournalFile.toPath());
+                lastCompactionFailed = false;
+            } catch (IOException e) {
+                lastCompactionFailed = true;
+                throw new ManagerSaveException("Не удалось сжать журнал");
+            }
+        });
+        return compaction;
+    }
+
+    private ExecutorService getCompactionExecutor() {
+        if (compactionExecutor == null) {
+            compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return compactionExecutor;
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            throw new ManagerSaveException(e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ManagerSaveException("Ожидание сохранения прервано");
+        }
+    }
+
+    //Принудительно пишет полный снимок и начинает журнал заново. Ждет окончания записи
+    public void compact() {
+        Future<?> startedCompaction;
+        synchronized (this) {
+            if (journal == null || !journal.isOpen()) {
+                return;
+            }
+            startedCompaction = startCompaction();
+        }
+        await(startedCompaction);
+    }
+
+    //Изменяющая операция: состояние меняется и сохраняется под монитором менеджера,
+    //а ожидание группового коммита идет уже без него, чтобы записи других потоков попали в ту же пачку
+    private void mutate(Runnable operation, Supplier<String> journalRecord) {
+        long sequence;
+        synchronized (this) {
+            operation.run();
+            sequence = persist(journalRecord);
+            if (batchDepth > 0) {
+                batchSequence = Math.max(batchSequence, sequence);
+                sequence = 0;
+            }
+        }
+        if (sequence > 0) {
+            journal.awaitDurable(sequence);
+        }
+    }
+
+    //Выполняет несколько изменяющих операций одной пачкой: без журнала снимок пишется один раз в конце,
+    //с журналом каждая операция дописывает свою запись, но запись на диск ожидается один раз - для последней.
+    //Если операция бросила исключение, уже сделанные изменения пачки все равно сохраняются
+    public void runBatch(Runnable operations) {
+        long sequence = 0;
+        synchronized (this) {
+            batchDepth++;
+            try {
+                operations.run();
+            } finally {
+                batchDepth--;
+                if (batchDepth == 0) {
+                    sequence = batchSequence;
+                    batchSequence = 0;
+                    if (batchDirty) {
+                        batchDirty = false;
+                        save();
+                    }
+                }
+            }
+        }
+        if (sequence > 0) {
+            journal.awaitDurable(sequence);
+        }
+    }
+
+    //Сбрасывает на диск все, что еще не записано: отложенный снимок или накопленные записи журнала
+    public void flush() {
+        if (journal != null) {
+            journal.flush();
+        } else if (writeBehindExecutor != null) {
+            saveIfDirty();
+        }
+    }
+
+    //После закрытия менеджером можно пользоваться дальше, но каждое изменение сохраняется синхронно
+    @Override
+    public void close() {
+        //сначала запрещаем отложенную запись, чтобы изменение между flush и остановкой потока не потерялось
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            flush();
+            Future<?> runningCompaction;
+            synchronized (this) {
+                runningCompaction = compaction;
+            }
+            if (runningCompaction != null) {
+                await(runningCompaction);
+            }
+        } finally {
+            if (writeBehindExecutor != null) {
+                writeBehindExecutor.shutdown();
+            }
+            if (compactionExecutor != null) {
+                compactionExecutor.shutdown();
+            }
+            if (journal != null) {
+                journal.close();
+            }
         }
     }
 
     @Override
     protected void put(BaseTask task) {
-        super.put(task);
-        save();
+        mutate(() -> super.put(task), () -> TaskJournal.addRecord(task));
     }
 
     @Override
     public void add(Task task) {
-        super.add(task);
-        save();
+        mutate(() -> super.add(task), () -> TaskJournal.addRecord(findTask(task.getId())));
     }
 
     @Override
     public void add(Epic task) {
-        super.add(task);
-        save();
+        mutate(() -> super.add(task), () -> TaskJournal.addRecord(findTask(task.getId())));
     }
 
     @Override
     public void add(Subtask task) {
-        super.add(task);
-        save();
+        mutate(() -> super.add(task), () -> TaskJournal.addRecord(findTask(task.getId())));
     }
 
     @Override
     public void clearEpics() {
-        super.clearEpics();
-        save();
+        mutate(super::clearEpics, () -> TaskJournal.clearRecord(TaskType.EPIC.toString()));
     }
 
     @Override
     public void clearSubTasks() {
-        super.clearSubTasks();
-        save();
+        mutate(super::clearSubTasks, () -> TaskJournal.clearRecord(TaskType.SUBTASK.toString()));
     }
 
     @Override
     public void clearTasks() {
-        super.clearTasks();
-        save();
+        mutate(super::clearTasks, () -> TaskJournal.clearRecord(TaskType.TASK.toString()));
     }
 
     @Override
     public void clearTasksOfAnyType() {
-        super.clearTasksOfAnyType();
-        save();
+        mutate(super::clearTasksOfAnyType, () -> TaskJournal.clearRecord(TaskJournal.CLEAR_ALL));
     }
 
     @Override
     public void remove(Epic epic) {
-        super.remove(epic);
-        save();
+        removeEpic(epic.getId());
     }
 
     @Override
     public void remove(Task task) {
-        super.remove(task);
-        save();
+        removeTask(task.getId());
     }
 
     @Override
     public void remove(Subtask task) {
-        super.remove(task);
-        save();
+        removeSubTask(task.getId());
     }
 
     @Override
     public void removeEpic(int id) {
-        super.removeEpic(id);
-        save();
+        mutate(() -> super.removeEpic(id), () -> TaskJournal.removeRecord(id));
     }
 
     @Override
     public void removeSubTask(int id) {
-        super.removeSubTask(id);
-        save();
+        mutate(() -> super.removeSubTask(id), () -> TaskJournal.removeRecord(id));
     }
 
     @Override
     public void removeTask(int id) {
-        super.removeTask(id);
-        save();
+        mutate(() -> super.removeTask(id), () -> TaskJournal.removeRecord(id));
     }
 
     @Override
     public void setStatus(Task task, Status status) {
-        super.setStatus(task, status);
-        save();
+        setStatus(task.getId(), status);
     }
 
     @Override
     public void setStatus(int taskId, Status status) {
-        super.setStatus(taskId, status);
-        save();
+        mutate(() -> super.setStatus(taskId, status), () -> TaskJournal.statusRecord(taskId, status));
     }
 
     @Override
     public void setStatus(Subtask subtask, Status status) {
-        super.setStatus(subtask, status);
-        save();
+        setStatus(subtask.getId(), status);
     }
 }
@@ -2,13 +2,26 @@ package ru.yandex.practicum.tasks.logic;
 
 import ru.yandex.practicum.tasks.model.BaseTask;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.IntFunction;
 
 public interface HistoryManager {
 
     void add(BaseTask task);
 
+    //Добавляет таски в историю в порядке коллекции, как последовательные вызовы add
+    default void addAll(Collection<? extends BaseTask> tasks) {
+        for (BaseTask task : tasks) {
+            add(task);
+        }
+    }
+
     List<BaseTask> getHistory();
 
     void remove(int id);
+
+    //Откуда брать таску по id, если история хранит только id. Менеджер тасок передает сюда свой поиск
+    default void setTaskSource(IntFunction<BaseTask> taskSource) {
+    }
 }
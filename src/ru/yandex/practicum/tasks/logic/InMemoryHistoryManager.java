@@ -1,33 +1,100 @@
 package ru.yandex.practicum.tasks.logic;
 
+import ru.yandex.practicum.tasks.logic.enums.HistoryMode;
 import ru.yandex.practicum.tasks.model.BaseTask;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.function.IntFunction;
 
 import static ru.yandex.practicum.tasks.logic.InMemoryTaskManager.getCopyTask;
 
+//История просмотров. Можно ограничить количество тасок (capacity) и примерный объем памяти,
+//который занимают их копии (memoryBudget). При превышении удаляются самые давно просмотренные таски.
+//Значение <= 0 отключает соответствующее ограничение.
+//Что именно хранится для таски, задает HistoryMode
 public class InMemoryHistoryManager implements HistoryManager {
+    //примерный размер копии таски без строк: узел списка, ячейка в taskMap, объект таски, Duration и LocalDateTime
+    private static final int TASK_OVERHEAD_BYTES = 160;
+    //узел списка и ячейка в taskMap, если хранится только id
+    private static final int ID_NODE_BYTES = 48;
+    //заголовок String и массива символов
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    private final int capacity;
+    private final long memoryBudget;
+    private final HistoryMode mode;
+    private IntFunction<BaseTask> taskSource;
     private Node last = new Node();
     private final Node head = last;
-    private final HashMap<Integer, Node> taskMap = new HashMap<>();
+    private final IntObjectMap<Node> taskMap = new IntObjectMap<>();
+    private long estimatedMemory;
+    private long evictionCount;
+
+    public InMemoryHistoryManager() {
+        this(0, 0);
+    }
+
+    public InMemoryHistoryManager(int capacity) {
+        this(capacity, 0);
+    }
+
+    public InMemoryHistoryManager(int capacity, long memoryBudget) {
+        this(capacity, memoryBudget, HistoryMode.COPY_ON_ADD);
+    }
+
+    public InMemoryHistoryManager(int capacity, long memoryBudget, HistoryMode mode) {
+        this.capacity = capacity;
+        this.memoryBudget = memoryBudget;
+        this.mode = mode;
+    }
+
+    @Override
+    public void setTaskSource(IntFunction<BaseTask> taskSource) {
+        this.taskSource = taskSource;
+    }
 
     @Override
     public void add(BaseTask task) {
-        BaseTask copyTask = getCopyTask(task);
-        remove(copyTask.getId());
-        Node newNode = new Node(copyTask);
-        taskMap.put(copyTask.getId(), newNode);
-        linkLast(newNode);
+        BaseTask storedTask = switch (mode) {
+            case COPY_ON_ADD -> getCopyTask(task);
+            case COPY_ON_READ -> task;
+            case ID_ONLY -> null;
+        };
+        //узел уже просмотренной таски переиспользуем: он только переносится в конец списка
+        Node node = taskMap.get(task.getId());
+        if (node != null) {
+            remove(node);
+            node.setData(storedTask);
+        } else {
+            node = new Node(storedTask);
+            node.setTaskId(task.getId());
+            taskMap.put(task.getId(), node);
+        }
+        node.setEstimatedSize(storedTask == null ? ID_NODE_BYTES : estimateSize(storedTask));
+        linkLast(node);
+        estimatedMemory += node.getEstimatedSize();
+        evictIfNeeded();
     }
 
     @Override
     public List<BaseTask> getHistory() {
-        ArrayList<BaseTask> result = new ArrayList<>();
+        if (mode == HistoryMode.ID_ONLY && taskSource == null) {
+            throw new IllegalStateException("Не задан источник тасок для истории");
+        }
+        ArrayList<BaseTask> result = new ArrayList<>(taskMap.size());
         Node node = head.getNext();
         while (node != null) {
-            result.add(node.getData());
+            switch (mode) {
+                case COPY_ON_ADD -> result.add(node.getData());
+                case COPY_ON_READ -> result.add(getCopyTask(node.getData()));
+                case ID_ONLY -> {
+                    BaseTask task = taskSource.apply(node.getTaskId());
+                    if (task != null) {
+                        result.add(getCopyTask(task));
+                    }
+                }
+            }
             node = node.getNext();
         }
         return result;
@@ -43,13 +110,58 @@ public class InMemoryHistoryManager implements HistoryManager {
         remove(nodeToRemove);
     }
 
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    public HistoryMode getMode() {
+        return mode;
+    }
+
+    public int size() {
+        return taskMap.size();
+    }
+
+    public long getEstimatedMemory() {
+        return estimatedMemory;
+    }
+
+    //Сколько тасок удалено из истории из-за ограничений capacity и memoryBudget
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    //Самая старая таска - первая после head, поэтому удаление O(1).
+    //Последнюю добавленную таску не удаляем, даже если она одна больше memoryBudget
+    private void evictIfNeeded() {
+        while (taskMap.size() > 1 && (capacity > 0 && taskMap.size() > capacity
+                || memoryBudget > 0 && estimatedMemory > memoryBudget)) {
+            remove(head.getNext().getTaskId());
+            evictionCount++;
+        }
+    }
+
+    private static int estimateSize(BaseTask task) {
+        return TASK_OVERHEAD_BYTES + estimateSize(task.getName()) + estimateSize(task.getDescription());
+    }
+
+    private static int estimateSize(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + 2 * value.length();
+    }
+
     private void linkLast(Node node) {
+        node.setNext(null);
         last.setNext(node);
         node.setPrev(last);
         last = node;
     }
 
     private void remove(Node nodeToRemove) {
+        estimatedMemory -= nodeToRemove.getEstimatedSize();
         Node prev = nodeToRemove.getPrev();
         if (nodeToRemove.getNext() == null) {
             prev.setNext(null);
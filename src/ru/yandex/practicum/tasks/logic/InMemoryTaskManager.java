@@ -11,13 +11,32 @@ import java.util.*;
 
 public class InMemoryTaskManager implements TaskManager {
     private int taskId = 1;
-    private final Map<Integer, BaseTask> tasks = new HashMap<>();
+    private final IntObjectMap<BaseTask> tasks = new IntObjectMap<>();
     private final HistoryManager historyManager;
+    private boolean taskSourceSet;
     private final Comparator<BaseTask> taskComparator = Comparator.comparing(BaseTask::getStartTime);
     private final TreeSet<BaseTask> sortedTasksByStartTime = new TreeSet<>(taskComparator);
+    private final TimeSpanIndex timeSpanIndex = new TimeSpanIndex();
+    //id тасок каждого типа, чтобы списки и очистка по типу не перебирали все таски
+    private final Map<TaskType, IntHashSet> idsByType = new EnumMap<>(TaskType.class);
+    //id сабтасок каждого эпика: ключ есть у каждого эпика, в том числе без сабтасок
+    private final IntObjectMap<IntHashSet> subtaskIdsByEpicId = new IntObjectMap<>();
 
     public InMemoryTaskManager(HistoryManager historyManager) {
         this.historyManager = historyManager;
+        for (TaskType taskType : TaskType.values()) {
+            idsByType.put(taskType, new IntHashSet());
+        }
+    }
+
+    //Источник тасок для истории (нужен в режиме ID_ONLY) задается при первом обращении к ней,
+    //а не в конструкторе: там this еще не готов, пока не отработали конструкторы наследников
+    private HistoryManager history() {
+        if (!taskSourceSet) {
+            historyManager.setTaskSource(this::findTask);
+            taskSourceSet = true;
+        }
+        return historyManager;
     }
 
     //вспомогательный метод
@@ -28,21 +47,63 @@ public class InMemoryTaskManager implements TaskManager {
         // Протестируйте эти кейсы и подумайте над возможными вариантами решения проблемы."
         // Написаны даже тесты про это.
         BaseTask copyTask = getCopyTask(task);
-        long overlappedCount = sortedTasksByStartTime.stream()
-                .filter(s -> BaseTask.areTimeSpansOverLapped(s.getStartTime(), s.getEndTime(), copyTask.getStartTime(), copyTask.getEndTime())).count();
-        if (overlappedCount > 0) {
+        if (timeSpanIndex.hasOverlap(copyTask.getStartTime(), copyTask.getEndTime())) {
             throw new TaskAddException("Есть пересечение с уже существующими тасками");
         }
         int taskId = getNextId();
         task.setId(taskId);
         copyTask.setId(taskId);
         tasks.put(taskId, copyTask);
-        if (copyTask.getStartTime() != null) {
-            sortedTasksByStartTime.add(copyTask);
-        }
+        addToTypeIndexes(copyTask);
+        addToTimeIndexes(copyTask);
         return copyTask;
     }
 
+    private void addToTypeIndexes(BaseTask task) {
+        idsByType.get(task.getTaskType()).add(task.getId());
+        if (task.getTaskType() == TaskType.EPIC) {
+            subtaskIdsByEpicId.put(task.getId(), new IntHashSet());
+        } else if (task.getTaskType() == TaskType.SUBTASK) {
+            subtaskIdsByEpicId.get(((Subtask) task).getEpicId()).add(task.getId());
+        }
+    }
+
+    private void removeFromTypeIndexes(BaseTask task) {
+        idsByType.get(task.getTaskType()).remove(task.getId());
+        if (task.getTaskType() == TaskType.EPIC) {
+            subtaskIdsByEpicId.remove(task.getId());
+        } else if (task.getTaskType() == TaskType.SUBTASK) {
+            IntHashSet subtaskIds = subtaskIdsByEpicId.get(((Subtask) task).getEpicId());
+            if (subtaskIds != null) {
+                subtaskIds.remove(task.getId());
+            }
+        }
+    }
+
+    private void addToTimeIndexes(BaseTask task) {
+        if (task.getStartTime() != null) {
+            sortedTasksByStartTime.add(task);
+            timeSpanIndex.add(task);
+        }
+    }
+
+    private void removeFromTimeIndexes(BaseTask task) {
+        sortedTasksByStartTime.remove(task);
+        timeSpanIndex.remove(task);
+    }
+
+    //Все удаления тасок из менеджера (кроме clearTasksOfAnyType) проходят через этот метод
+    private void deleteTask(BaseTask task) {
+        tasks.remove(task.getId());
+        removeFromTypeIndexes(task);
+        removeFromTimeIndexes(task);
+        onTaskRemoved(task);
+    }
+
+    //Вызывается после удаления каждой таски, в том числе сабтасок, удаленных вместе с эпиком
+    protected void onTaskRemoved(BaseTask task) {
+    }
+
     private int getNextId() {
         return taskId++;
     }
@@ -70,7 +131,7 @@ public class InMemoryTaskManager implements TaskManager {
     }
 
     protected List<BaseTask> getAllTasksOfAnyType() {
-        return new ArrayList<>(tasks.values());
+        return tasks.values();
     }
 
     //Вспомогательный метод. Айдишник берется из самой таски, а не из метода getNextId()
@@ -92,19 +153,26 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalStateException(String.format("Таска с id = %d уже была ранее добавлена", task.getId()));
         }
         tasks.put(task.getId(), task);
-        if (task.getStartTime() != null) {
-            sortedTasksByStartTime.add(task);
-        }
+        addToTypeIndexes(task);
+        addToTimeIndexes(task);
     }
 
     //Методы, работающие с тасками всех типов
     @Override
     public void clearTasksOfAnyType() {
         tasks.clear();
+        idsByType.values().forEach(IntHashSet::clear);
+        subtaskIdsByEpicId.clear();
         sortedTasksByStartTime.clear();
+        timeSpanIndex.clear();
         setStartNextId(1);
     }
 
+    //В отличие от getTaskOfAnyType не кидает исключение, а возвращает null
+    protected BaseTask findTask(int id) {
+        return tasks.get(id);
+    }
+
     private BaseTask getTaskOfAnyType(int id) {
         if (!tasks.containsKey(id)) {
             throw new TaskNotFoundException("Не найден таск с id = " + id);
@@ -115,64 +183,42 @@ public class InMemoryTaskManager implements TaskManager {
     //Методы, работающие с тасками определенного типа
     @Override
     public void clearTasks() {
-        List<Integer> toRemove = tasks.values().stream()
-                .filter(t -> t.getTaskType().equals(TaskType.TASK))
-                        .map(BaseTask::getId).toList();
-
-        toRemove.forEach((Integer id) -> {
-            BaseTask task = tasks.get(id);
-            tasks.remove(id);
-            sortedTasksByStartTime.remove(task);
-        });
+        deleteTasksOfType(TaskType.TASK);
     }
 
     @Override
     public void clearSubTasks() {
-        List<Integer> toRemove = tasks.values().stream()
-                .filter(t -> t.getTaskType().equals(TaskType.SUBTASK))
-                .map(BaseTask::getId)
-                .toList();
-
-        toRemove.forEach((Integer id) -> {
-            BaseTask task = tasks.get(id);
-            tasks.remove(id);
-            sortedTasksByStartTime.remove(task);
-        });
-
-        tasks.values()
-                .stream()
-                .filter(t -> t.getTaskType().equals(TaskType.EPIC))
-                .forEach(t -> ((Epic)t).calculateAll());
+        deleteTasksOfType(TaskType.SUBTASK);
+        idsByType.get(TaskType.EPIC).forEach(id -> ((Epic) tasks.get(id)).clearSubtasks());
     }
 
     @Override
     public void clearEpics() {
-        List<Integer> toRemove = new ArrayList<>(tasks.values()
-                .stream()
-                .filter(t -> t.getTaskType().equals(TaskType.EPIC))
-                .map(BaseTask::getId)
-                .toList());
-
-        for (int i = 0; i < toRemove.size(); i++) {
-            int id = toRemove.get(i);
-            tasks.values()
-                .stream()
-                .filter(t -> t.getTaskType() == TaskType.SUBTASK && ((Subtask)t).getEpicId() == id)
-                .forEach(t -> toRemove.add(t.getId()));
+        //сабтаски без эпика не бывает, поэтому вместе с эпиками удаляются все сабтаски
+        deleteTasksOfType(TaskType.EPIC);
+        deleteTasksOfType(TaskType.SUBTASK);
+    }
+
+    private void deleteTasksOfType(TaskType taskType) {
+        //копия id: deleteTask удаляет id из того же множества
+        for (int id : idsByType.get(taskType).toArray()) {
+            deleteTask(tasks.get(id));
         }
+    }
 
-        toRemove.forEach(id -> {
-            BaseTask task = tasks.get(id);
-            sortedTasksByStartTime.remove(task);
-            tasks.remove(id);
-        });
+    //Возвращает таски одного типа и добавляет их в историю
+    private <T extends BaseTask> List<T> getTasksOfType(TaskType taskType, Class<T> taskClass) {
+        List<T> result = new ArrayList<>(idsByType.get(taskType).size());
+        idsByType.get(taskType).forEach(id -> result.add(taskClass.cast(tasks.get(id))));
+        history().addAll(result);
+        return Collections.unmodifiableList(result);
     }
 
     @Override
     public Epic getEpic(int epicId) {
         BaseTask task = getTaskOfAnyType(epicId);
         ensureTaskIsEpic(task);
-        historyManager.add(task);
+        history().add(task);
         return (Epic) task;
     }
 
@@ -180,7 +226,7 @@ public class InMemoryTaskManager implements TaskManager {
     public Task getTask(int taskId) {
         BaseTask task = getTaskOfAnyType(taskId);
         ensureTaskIsTask(task);
-        historyManager.add(task);
+        history().add(task);
         return (Task) task;
     }
 
@@ -188,7 +234,7 @@ public class InMemoryTaskManager implements TaskManager {
     public Subtask getSubtask(int subtaskId) {
         BaseTask task = getTaskOfAnyType(subtaskId);
         ensureTaskIsSubTask(task);
-        historyManager.add(task);
+        history().add(task);
         return (Subtask) task;
     }
 
@@ -197,57 +243,27 @@ public class InMemoryTaskManager implements TaskManager {
         BaseTask task = getTaskOfAnyType(epicId);
         ensureTaskIsEpic(task);
         Epic epic = (Epic)task;
-        List<Subtask> result = new ArrayList<>();
-        for (int id : getAllTasksOfAnyType()
-                .stream()
-                .filter(bt -> bt.getTaskType() == TaskType.SUBTASK && ((Subtask)bt).getEpicId() == epic.getId())
-                .map(BaseTask::getId)
-                .toList()) {
-            Subtask subtask = (Subtask) tasks.get(id);
-            historyManager.add(subtask);
-            result.add(subtask);
-        }
+        IntHashSet subtaskIds = subtaskIdsByEpicId.get(epic.getId());
+        List<Subtask> result = new ArrayList<>(subtaskIds.size());
+        subtaskIds.forEach(id -> result.add((Subtask) tasks.get(id)));
+        history().addAll(result);
 
         return result;
     }
 
     @Override
     public List<Task> getListTasks() {
-        List<BaseTask> allTasks = getAllTasksOfAnyType();
-        return allTasks
-                .stream()
-                .filter((BaseTask t) -> t.getTaskType() == TaskType.TASK)
-                .map((BaseTask bt) -> {
-                    historyManager.add(bt);
-                    return (Task)bt;
-                })
-                .toList();
+        return getTasksOfType(TaskType.TASK, Task.class);
     }
 
     @Override
     public List<Epic> getListEpics() {
-        List<BaseTask> allTasks = getAllTasksOfAnyType();
-        return allTasks
-                .stream()
-                .filter((BaseTask t) -> t.getTaskType() == TaskType.EPIC)
-                .map((BaseTask bt) -> {
-                    historyManager.add(bt);
-                    return (Epic)bt;
-                })
-                .toList();
+        return getTasksOfType(TaskType.EPIC, Epic.class);
     }
 
     @Override
     public List<Subtask> getListSubtasks() {
-        List<BaseTask> allTasks = getAllTasksOfAnyType();
-        return allTasks
-                .stream()
-                .filter((BaseTask t) -> t.getTaskType() == TaskType.SUBTASK)
-                .map((BaseTask bt) -> {
-                    historyManager.add(bt);
-                    return (Subtask)bt;
-                })
-                .toList();
+        return getTasksOfType(TaskType.SUBTASK, Subtask.class);
     }
 
     @Override
@@ -273,17 +289,15 @@ public class InMemoryTaskManager implements TaskManager {
     public void removeTask(int id) {
         BaseTask task = getTaskOfAnyType(id);
         ensureTaskIsTask(task);
-        tasks.remove(id);
-        sortedTasksByStartTime.remove(task);
+        deleteTask(task);
     }
 
     @Override
     public void removeSubTask(int id) {
         Subtask subtask = getSubtask(id);
-        tasks.remove(id);
+        deleteTask(subtask);
         Epic epic = getEpic(subtask.getEpicId());
         epic.removeSubtask(id);
-        sortedTasksByStartTime.remove(subtask);
     }
 
     @Override
@@ -291,10 +305,10 @@ public class InMemoryTaskManager implements TaskManager {
         BaseTask task = getTaskOfAnyType(id);
         ensureTaskIsEpic(task);
 
-        List<Subtask> subtasks = getSubtasksOfEpic(id);
-        subtasks.forEach((Subtask subtask) -> tasks.remove(subtask.getId()));
-        tasks.remove(id);
-        sortedTasksByStartTime.remove(task);
+        for (int subtaskId : subtaskIdsByEpicId.get(id).toArray()) {
+            deleteTask(tasks.get(subtaskId));
+        }
+        deleteTask(task);
     }
 
     @Override
@@ -318,10 +332,12 @@ public class InMemoryTaskManager implements TaskManager {
         if (task.getTaskType() == TaskType.EPIC) {
             throw new WrongTaskTypeException("Нельзя менять статус эпику!");
         }
-        task.setStatus(status);
         if (task.getTaskType() == TaskType.SUBTASK) {
+            //статус сабтаски меняет эпик: так он обновит свои счетчики статусов
             Epic epic = getEpic(((Subtask)task).getEpicId());
-            epic.calculateStatus();
+            epic.setSubtaskStatus(taskId, status);
+        } else {
+            task.setStatus(status);
         }
     }
 
@@ -337,7 +353,7 @@ public class InMemoryTaskManager implements TaskManager {
 
     @Override
     public List<BaseTask> getHistory() {
-        return historyManager.getHistory();
+        return history().getHistory();
     }
 
     @Override
@@ -0,0 +1,152 @@
+package ru.yandex.practicum.tasks.logic;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+//Множество int без упаковки в Integer: открытая адресация с линейным пробированием.
+//Хэш - само значение, поэтому подряд идущие id лежат в таблице подряд
+//и обходятся по возрастанию (как ключи Integer у HashMap, пока id меньше размера таблицы)
+public class IntHashSet {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+    //метка удаленного значения. Подряд идущие id образуют одну длинную цепочку,
+    //и сдвиг значений назад при удалении проходил бы ее всю
+    private static final byte REMOVED = 2;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private byte[] states = new byte[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+    private int removedCount;
+
+    public boolean add(int key) {
+        int index = key & mask;
+        int firstRemoved = -1;
+        while (states[index] != FREE) {
+            if (states[index] == REMOVED) {
+                if (firstRemoved < 0) {
+                    firstRemoved = index;
+                }
+                if (keys[index] == key) {
+                    break;
+                }
+            } else if (keys[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        if (firstRemoved >= 0) {
+            index = firstRemoved;
+            removedCount--;
+        }
+        keys[index] = key;
+        states[index] = USED;
+        size++;
+        //занятые и удаленные ячейки - не больше половины таблицы, чтобы цепочки пробирования были короткими
+        if ((size + removedCount) * 2 > keys.length) {
+            resize(size * 4 > keys.length ? keys.length * 2 : keys.length);
+        }
+        return true;
+    }
+
+    public boolean remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        size--;
+        if (states[(index + 1) & mask] == FREE) {
+            //дальше цепочка не продолжается: ячейку и метки перед ней можно сразу освободить
+            states[index] = FREE;
+            index = (index - 1) & mask;
+            while (states[index] == REMOVED) {
+                states[index] = FREE;
+                removedCount--;
+                index = (index - 1) & mask;
+            }
+        } else {
+            states[index] = REMOVED;
+            removedCount++;
+        }
+        return true;
+    }
+
+    public boolean contains(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        states = new byte[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+        size = 0;
+        removedCount = 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == USED) {
+                action.accept(keys[i]);
+            }
+        }
+    }
+
+    //Копия значений. Нужна, если во время обхода множество будет меняться
+    public int[] toArray() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == USED) {
+                result[count++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    //Метка удаления хранит прежний ключ. Ключ всегда добавляется в первую метку на своем пути,
+    //поэтому если по пути встретилась метка с этим же ключом, дальше его точно нет
+    private int indexOf(int key) {
+        int index = key & mask;
+        while (states[index] != FREE) {
+            if (keys[index] == key) {
+                return states[index] == USED ? index : -1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    //Перекладывает значения в новую таблицу, заодно избавляясь от меток удаления
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        byte[] oldStates = states;
+        keys = new int[capacity];
+        states = new byte[capacity];
+        mask = capacity - 1;
+        removedCount = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == USED) {
+                int index = oldKeys[i] & mask;
+                while (states[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                states[index] = USED;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,130 @@
+package ru.yandex.practicum.tasks.logic;
+
+//Словарь int -> int без упаковки в Integer. Устроен так же, как IntHashSet:
+//открытая адресация с линейным пробированием, хэш - сам ключ, удаленные записи помечаются
+public class IntIntMap {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+    private static final byte REMOVED = 2;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private int[] values = new int[INITIAL_CAPACITY];
+    private byte[] states = new byte[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+    private int removedCount;
+
+    //Возвращает значение или defaultValue, если ключа нет
+    public int get(int key, int defaultValue) {
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public void put(int key, int value) {
+        int index = key & mask;
+        int firstRemoved = -1;
+        while (states[index] != FREE) {
+            if (states[index] == REMOVED) {
+                if (firstRemoved < 0) {
+                    firstRemoved = index;
+                }
+                if (keys[index] == key) {
+                    break;
+                }
+            } else if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        if (firstRemoved >= 0) {
+            index = firstRemoved;
+            removedCount--;
+        }
+        keys[index] = key;
+        values[index] = value;
+        states[index] = USED;
+        size++;
+        if ((size + removedCount) * 2 > keys.length) {
+            resize(size * 4 > keys.length ? keys.length * 2 : keys.length);
+        }
+    }
+
+    public boolean remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        size--;
+        if (states[(index + 1) & mask] == FREE) {
+            states[index] = FREE;
+            index = (index - 1) & mask;
+            while (states[index] == REMOVED) {
+                states[index] = FREE;
+                removedCount--;
+                index = (index - 1) & mask;
+            }
+        } else {
+            states[index] = REMOVED;
+            removedCount++;
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        states = new byte[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+        size = 0;
+        removedCount = 0;
+    }
+
+    //Метка удаления хранит прежний ключ. Ключ всегда добавляется в первую метку на своем пути,
+    //поэтому если по пути встретилась метка с этим же ключом, дальше его точно нет
+    private int indexOf(int key) {
+        int index = key & mask;
+        while (states[index] != FREE) {
+            if (keys[index] == key) {
+                return states[index] == USED ? index : -1;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        byte[] oldStates = states;
+        keys = new int[capacity];
+        values = new int[capacity];
+        states = new byte[capacity];
+        mask = capacity - 1;
+        removedCount = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == USED) {
+                int index = oldKeys[i] & mask;
+                while (states[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                states[index] = USED;
+            }
+        }
+    }
+}
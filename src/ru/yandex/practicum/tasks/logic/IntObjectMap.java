@@ -0,0 +1,160 @@
+package ru.yandex.practicum.tasks.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+//Словарь с ключами int без упаковки в Integer и без объекта Entry на каждую запись:
+//ключи и значения лежат в двух параллельных массивах, открытая адресация с линейным пробированием.
+//Как и в IntHashSet, хэш - сам ключ, поэтому подряд идущие id обходятся по возрастанию.
+//null в values означает пустую ячейку, поэтому значения null не хранятся
+public class IntObjectMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+    //метка удаленной записи. Подряд идущие id образуют одну длинную цепочку,
+    //и сдвиг записей назад при удалении проходил бы ее всю
+    private static final Object REMOVED = new Object();
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+    private int removedCount;
+
+    public V get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : value(index);
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    //Возвращает предыдущее значение или null
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Значение не может быть null");
+        }
+        int index = key & mask;
+        int firstRemoved = -1;
+        while (values[index] != null) {
+            if (values[index] == REMOVED) {
+                if (firstRemoved < 0) {
+                    firstRemoved = index;
+                }
+                if (keys[index] == key) {
+                    break;
+                }
+            } else if (keys[index] == key) {
+                V oldValue = value(index);
+                values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+        if (firstRemoved >= 0) {
+            index = firstRemoved;
+            removedCount--;
+        }
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        //занятые и удаленные ячейки - не больше половины таблицы, чтобы цепочки пробирования были короткими
+        if ((size + removedCount) * 2 > keys.length) {
+            resize(size * 4 > keys.length ? keys.length * 2 : keys.length);
+        }
+        return null;
+    }
+
+    //Возвращает удаленное значение или null
+    public V remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V oldValue = value(index);
+        size--;
+        if (values[(index + 1) & mask] == null) {
+            //дальше цепочка не продолжается: ячейку и метки перед ней можно сразу освободить
+            values[index] = null;
+            index = (index - 1) & mask;
+            while (values[index] == REMOVED) {
+                values[index] = null;
+                removedCount--;
+                index = (index - 1) & mask;
+            }
+        } else {
+            values[index] = REMOVED;
+            removedCount++;
+        }
+        return oldValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        keys = new int[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+        size = 0;
+        removedCount = 0;
+    }
+
+    public void forEachValue(Consumer<? super V> action) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null && values[i] != REMOVED) {
+                action.accept(value(i));
+            }
+        }
+    }
+
+    //Копия значений в порядке обхода таблицы
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        forEachValue(result::add);
+        return result;
+    }
+
+    //Метка удаления хранит прежний ключ. Ключ всегда добавляется в первую метку на своем пути,
+    //поэтому если по пути встретилась метка с этим же ключом, дальше его точно нет
+    private int indexOf(int key) {
+        int index = key & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return values[index] == REMOVED ? -1 : index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int index) {
+        return (V) values[index];
+    }
+
+    //Перекладывает записи в новую таблицу, заодно избавляясь от меток удаления
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        removedCount = 0;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null && oldValues[i] != REMOVED) {
+                int index = oldKeys[i] & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
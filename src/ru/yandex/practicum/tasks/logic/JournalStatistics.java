@@ -0,0 +1,42 @@
+package ru.yandex.practicum.tasks.logic;
+
+//Статистика записи журнала: сколько записей уходит на диск одной пачкой
+public class JournalStatistics {
+    private final long records;
+    private final long batches;
+    private final long forces;
+    private final int maxBatchSize;
+
+    public JournalStatistics(long records, long batches, long forces, int maxBatchSize) {
+        this.records = records;
+        this.batches = batches;
+        this.forces = forces;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public long getForces() {
+        return forces;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public double getAverageBatchSize() {
+        return batches == 0 ? 0 : (double) records / batches;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d записей в %d пачках (в среднем %.1f, максимум %d), force: %d",
+                records, batches, getAverageBatchSize(), maxBatchSize, forces);
+    }
+}
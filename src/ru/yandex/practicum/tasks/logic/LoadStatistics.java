@@ -0,0 +1,41 @@
+package ru.yandex.practicum.tasks.logic;
+
+import java.util.concurrent.TimeUnit;
+
+//Статистика последней загрузки менеджера из файла
+public class LoadStatistics {
+    private final long records;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    public LoadStatistics(long records, long bytes, long elapsedNanos) {
+        this.records = records;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getRecordsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return records * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d записей (%d байт) за %d мс, %.0f записей/с",
+                records, bytes, getElapsedMillis(), getRecordsPerSecond());
+    }
+}
@@ -1,12 +1,28 @@
 package ru.yandex.practicum.tasks.logic;
 
 public class Managers {
+    //история хранит копии тасок, поэтому в долго работающем процессе ее размер стоит ограничивать
+    public static final int BOUNDED_HISTORY_CAPACITY = 10_000;
 
     public TaskManager getDefault() {
         return new InMemoryTaskManager(getDefaultHistory());
     }
 
+    //Неблокирующий менеджер с сохранением в файл: изменения и запись на диск идут в отдельном потоке пачками
+    public AsyncTaskManager getFileBackedAsync(String filename) {
+        return EventLoopTaskManager.start(new FileBackedTaskManager(filename, getDefaultHistory()));
+    }
+
     public HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
+
+    //История, из которой вытесняются самые давно просмотренные таски, когда их больше capacity
+    public HistoryManager getBoundedHistory() {
+        return getBoundedHistory(BOUNDED_HISTORY_CAPACITY);
+    }
+
+    public HistoryManager getBoundedHistory(int capacity) {
+        return new InMemoryHistoryManager(capacity);
+    }
 }
@@ -0,0 +1,470 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tasks.exceptions.ManagerSaveException;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+import ru.yandex.practicum.tasks.model.enums.TaskType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+//Менеджер, который хранит таски в файле, отображенном в память (MappedByteBuffer).
+//Основной файл - заголовок и слоты фиксированного размера с короткими полями таски,
+//файл <имя>.strings - куча строк (name и description), куда строки только дописываются.
+//Изменение статуса - запись одного байта в слот, удаление - пометка слота свободным,
+//без перезаписи файла целиком. Когда мусора в куче строк становится больше половины,
+//оба файла переписываются заново (см. compact).
+public class MappedFileBackedTaskManager extends InMemoryTaskManager implements AutoCloseable {
+    private static final String STRINGS_SUFFIX = ".strings";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final String COMPACTED_SUFFIX = ".compacted";
+    private static final int MAGIC = 0x4B4E4D4D;
+    private static final int VERSION = 1;
+    private static final int INITIAL_CAPACITY = 1024;
+    //кучу строк меньше этого размера не сжимаем, даже если в ней один мусор
+    private static final long COMPACTION_MIN_STRINGS_SIZE = 1 << 20;
+
+    //заголовок: MAGIC, VERSION, количество использованных слотов
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_COUNT_OFFSET = 8;
+
+    //слот
+    private static final int SLOT_SIZE = 48;
+    private static final int STATE_OFFSET = 0;
+    private static final int TYPE_OFFSET = 1;
+    private static final int STATUS_OFFSET = 2;
+    private static final int FLAGS_OFFSET = 3;
+    private static final int ID_OFFSET = 4;
+    private static final int EPIC_ID_OFFSET = 8;
+    private static final int START_TIME_OFFSET = 12;
+    private static final int DURATION_OFFSET = 20;
+    private static final int NAME_OFFSET = 28;
+    private static final int DESCRIPTION_OFFSET = 36;
+
+    private static final byte SLOT_FREE = 0;
+    private static final byte SLOT_USED = 1;
+    private static final int HAS_START_TIME = 1;
+    private static final int HAS_DURATION = 2;
+    //в куче строк длина -1 означает null
+    private static final int NULL_STRING = -1;
+    //значение slotById для таски, у которой нет слота
+    private static final int NO_SLOT = -1;
+
+    private static final TaskType[] TASK_TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final File file;
+    private FileChannel slotsChannel;
+    private FileChannel stringsChannel;
+    private MappedByteBuffer slots;
+    private int slotCount;
+    private long stringsSize;
+    private IntIntMap slotById = new IntIntMap();
+    //стек свободных слотов
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+
+    public MappedFileBackedTaskManager(String filename, HistoryManager historyManager) {
+        this(new File(filename), historyManager, true);
+    }
+
+    private MappedFileBackedTaskManager(File file, HistoryManager historyManager, boolean truncate) {
+        super(historyManager);
+        this.file = file;
+        openFiles(truncate);
+        if (truncate || slots.getInt(0) != MAGIC) {
+            slots.putInt(0, MAGIC);
+            slots.putInt(4, VERSION);
+            slots.putInt(SLOT_COUNT_OFFSET, 0);
+        } else if (slots.getInt(4) != VERSION) {
+            throw new ManagerLoadException("Неподдерживаемая версия файла: " + slots.getInt(4));
+        }
+        slotCount = slots.getInt(SLOT_COUNT_OFFSET);
+    }
+
+    private void openFiles(boolean truncate) {
+        try {
+            slotsChannel = openChannel(file, truncate);
+            stringsChannel = openChannel(new File(file.getPath() + STRINGS_SUFFIX), truncate);
+            stringsSize = stringsChannel.size();
+            long capacity = Math.max(INITIAL_CAPACITY, (slotsChannel.size() - HEADER_SIZE) / SLOT_SIZE);
+            slots = slotsChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + capacity * SLOT_SIZE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось открыть файл");
+        }
+    }
+
+    private static FileChannel openChannel(File file, boolean truncate) throws IOException {
+        return truncate
+                ? FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+                : FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    //Открывает существующий файл. Таски собираются из полей слотов без разбора текста
+    public static MappedFileBackedTaskManager open(File file) {
+        finishCompaction(file);
+        MappedFileBackedTaskManager manager = new MappedFileBackedTaskManager(file, new InMemoryHistoryManager(), false);
+        manager.restoreAll();
+        if (manager.needsCompaction()) {
+            manager.compact();
+        }
+        return manager;
+    }
+
+    private void restoreAll() {
+        if (stringsSize > Integer.MAX_VALUE) {
+            throw new ManagerLoadException("Файл строк больше 2 ГБ: " + stringsSize + " байт");
+        }
+        MappedByteBuffer strings;
+        try {
+            strings = stringsChannel.map(FileChannel.MapMode.READ_ONLY, 0, stringsSize);
+        } catch (IOException e) {
+            throw new ManagerLoadException("Не удалось прочитать файл строк");
+        }
+        //слоты переиспользуются, поэтому сабтаска может лежать раньше своего эпика: сабтаски восстанавливаем вторым проходом
+        int[] subtaskSlots = new int[16];
+        int subtaskCount = 0;
+        int maxId = 0;
+        try {
+            for (int slot = 0; slot < slotCount; slot++) {
+                int offset = slotOffset(slot);
+                if (slots.get(offset + STATE_OFFSET) == SLOT_FREE) {
+                    freeSlots = push(freeSlots, freeSlotCount++, slot);
+                    continue;
+                }
+                maxId = Math.max(maxId, slots.getInt(offset + ID_OFFSET));
+                if (TASK_TYPES[slots.get(offset + TYPE_OFFSET)] == TaskType.SUBTASK) {
+                    subtaskSlots = push(subtaskSlots, subtaskCount++, slot);
+                } else {
+                    restore(readTask(slot, strings), slot);
+                }
+            }
+            for (int i = 0; i < subtaskCount; i++) {
+                restore(readTask(subtaskSlots[i], strings), subtaskSlots[i]);
+            }
+        } catch (IllegalStateException | IndexOutOfBoundsException e) {
+            throw new ManagerLoadException("Неправильный формат файла: " + e.getMessage());
+        }
+        setStartNextId(maxId + 1);
+    }
+
+    private void restore(BaseTask task, int slot) {
+        super.put(task);
+        slotById.put(task.getId(), slot);
+    }
+
+    private BaseTask readTask(int slot, ByteBuffer strings) {
+        int offset = slotOffset(slot);
+        TaskType taskType = TASK_TYPES[slots.get(offset + TYPE_OFFSET)];
+        String name = readString(strings, slots.getLong(offset + NAME_OFFSET));
+        String description = readString(strings, slots.getLong(offset + DESCRIPTION_OFFSET));
+        BaseTask task;
+        if (taskType == TaskType.TASK) {
+            task = new Task(name, description);
+        } else if (taskType == TaskType.EPIC) {
+            task = new Epic(name, description);
+        } else {
+            Subtask subtask = new Subtask(name, description);
+            subtask.setEpicId(slots.getInt(offset + EPIC_ID_OFFSET));
+            task = subtask;
+        }
+        task.setId(slots.getInt(offset + ID_OFFSET));
+        if (taskType != TaskType.EPIC) {
+            int flags = slots.get(offset + FLAGS_OFFSET);
+            task.setStatus(STATUSES[slots.get(offset + STATUS_OFFSET)]);
+            if ((flags & HAS_START_TIME) != 0) {
+                task.setStartTime(LocalDateTime.ofEpochSecond(slots.getLong(offset + START_TIME_OFFSET) * 60, 0, ZoneOffset.UTC));
+            }
+            if ((flags & HAS_DURATION) != 0) {
+                task.setDuration(Duration.ofMinutes(slots.getLong(offset + DURATION_OFFSET)));
+            }
+        }
+        return task;
+    }
+
+    //Кладет значение на вершину стека из size элементов, при необходимости увеличивая массив
+    private static int[] push(int[] stack, int size, int value) {
+        if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+        }
+        stack[size] = value;
+        return stack;
+    }
+
+    private static String readString(ByteBuffer strings, long position) {
+        if (position < 0 || position > strings.limit() - Integer.BYTES) {
+            throw new IllegalStateException("смещение строки за пределами файла строк: " + position);
+        }
+        int length = strings.getInt((int) position);
+        if (length == NULL_STRING) {
+            return null;
+        }
+        if (length < 0 || length > strings.limit() - position - Integer.BYTES) {
+            throw new IllegalStateException("неправильная длина строки: " + length);
+        }
+        byte[] bytes = new byte[length];
+        strings.get((int) position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long appendString(String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        if (stringsSize + Integer.BYTES + bytes.length > Integer.MAX_VALUE) {
+            throw new ManagerSaveException("Файл строк не может быть больше 2 ГБ");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+        buffer.putInt(value == null ? NULL_STRING : bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        long position = stringsSize;
+        try {
+            while (buffer.hasRemaining()) {
+                stringsChannel.write(buffer, stringsSize + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось записать строку в файл");
+        }
+        stringsSize += Integer.BYTES + bytes.length;
+        return position;
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        int slot = slotCount;
+        if (slotOffset(slot + 1) > slots.capacity()) {
+            grow();
+        }
+        slotCount++;
+        slots.putInt(SLOT_COUNT_OFFSET, slotCount);
+        return slot;
+    }
+
+    private void grow() {
+        long newCapacity = 2L * (slots.capacity() - HEADER_SIZE) / SLOT_SIZE;
+        long newSize = HEADER_SIZE + newCapacity * SLOT_SIZE;
+        if (newSize > Integer.MAX_VALUE) {
+            throw new ManagerSaveException("Файл слотов не может быть больше 2 ГБ");
+        }
+        try {
+            slots = slotsChannel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось увеличить файл");
+        }
+    }
+
+    private void writeSlot(BaseTask task) {
+        //сжимаем заранее, пока куча строк не уперлась в предел appendString
+        if (stringsSize > Integer.MAX_VALUE / 2 && needsCompaction()) {
+            compact();
+        }
+        writeSlotFields(task);
+    }
+
+    private void writeSlotFields(BaseTask task) {
+        int slot = slotById.get(task.getId(), NO_SLOT);
+        if (slot == NO_SLOT) {
+            slot = allocateSlot();
+        }
+        int offset = slotOffset(slot);
+        boolean isEpic = task.getTaskType() == TaskType.EPIC;
+        int flags = (!isEpic && task.getStartTime() != null ? HAS_START_TIME : 0)
+                | (!isEpic && task.getDuration() != null ? HAS_DURATION : 0);
+        slots.put(offset + TYPE_OFFSET, (byte) task.getTaskType().ordinal());
+        slots.put(offset + STATUS_OFFSET, (byte) task.getStatus().ordinal());
+        slots.put(offset + FLAGS_OFFSET, (byte) flags);
+        slots.putInt(offset + ID_OFFSET, task.getId());
+        slots.putInt(offset + EPIC_ID_OFFSET, task.getTaskType() == TaskType.SUBTASK ? ((Subtask) task).getEpicId() : 0);
+        slots.putLong(offset + START_TIME_OFFSET, (flags & HAS_START_TIME) != 0
+                ? Math.floorDiv(task.getStartTime().toEpochSecond(ZoneOffset.UTC), 60) : 0);
+        slots.putLong(offset + DURATION_OFFSET, (flags & HAS_DURATION) != 0 ? task.getDuration().toMinutes() : 0);
+        slots.putLong(offset + NAME_OFFSET, appendString(task.getName()));
+        slots.putLong(offset + DESCRIPTION_OFFSET, appendString(task.getDescription()));
+        //слот становится занятым последним, когда все его поля уже записаны
+        slots.put(offset + STATE_OFFSET, SLOT_USED);
+        slotById.put(task.getId(), slot);
+    }
+
+    //Сбрасывает изменения отображенного файла и кучи строк на диск
+    public void flush() {
+        slots.force();
+        try {
+            stringsChannel.force(false);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось сохранить файл строк");
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+            if (needsCompaction()) {
+                compact();
+            }
+        } finally {
+            closeFiles();
+        }
+    }
+
+    private void closeFiles() {
+        try {
+            slotsChannel.close();
+            stringsChannel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось закрыть файл");
+        }
+    }
+
+    //Мусор в куче строк - строки удаленных тасок и старые значения перезаписанных слотов
+    private boolean needsCompaction() {
+        if (stringsSize < COMPACTION_MIN_STRINGS_SIZE) {
+            return false;
+        }
+        long liveSize = 0;
+        for (BaseTask task : getAllTasksOfAnyType()) {
+            liveSize += 2 * Integer.BYTES + utf8Length(task.getName()) + utf8Length(task.getDescription());
+        }
+        return stringsSize > 2 * liveSize;
+    }
+
+    private static long utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            //суррогатная пара занимает 4 байта, по 2 на каждый char
+            length += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+        }
+        return length;
+    }
+
+    //Переписывает живые таски в новую пару файлов <имя>.compacting и подменяет ими старые.
+    //Точка фиксации - переименование в <имя>.compacted: после него прерванная подмена
+    //доделывается при следующем открытии (см. finishCompaction), до него - откатывается
+    private void compact() {
+        File compacting = new File(file.getPath() + COMPACTING_SUFFIX);
+        MappedFileBackedTaskManager copy = new MappedFileBackedTaskManager(compacting, new InMemoryHistoryManager(), true);
+        try {
+            getAllTasksOfAnyType().forEach(copy::writeSlotFields);
+            copy.flush();
+        } finally {
+            copy.closeFiles();
+        }
+        closeFiles();
+        try {
+            Files.move(compacting.toPath(), new File(file.getPath() + COMPACTED_SUFFIX).toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось сжать файл");
+        }
+        finishCompaction(file);
+        openFiles(false);
+        slotCount = copy.slotCount;
+        slotById = copy.slotById;
+        freeSlotCount = 0;
+    }
+
+    private static void finishCompaction(File file) {
+        File compacted = new File(file.getPath() + COMPACTED_SUFFIX);
+        File compactingStrings = new File(file.getPath() + COMPACTING_SUFFIX + STRINGS_SUFFIX);
+        try {
+            if (compacted.exists()) {
+                if (compactingStrings.exists()) {
+                    Files.move(compactingStrings.toPath(), new File(file.getPath() + STRINGS_SUFFIX).toPath(),
+                            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(new File(file.getPath() + COMPACTING_SUFFIX).toPath());
+                Files.deleteIfExists(compactingStrings.toPath());
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось завершить сжатие файла");
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    protected void onTaskRemoved(BaseTask task) {
+        int slot = slotById.get(task.getId(), NO_SLOT);
+        if (slot != NO_SLOT) {
+            slotById.remove(task.getId());
+            slots.put(slotOffset(slot) + STATE_OFFSET, SLOT_FREE);
+            freeSlots = push(freeSlots, freeSlotCount++, slot);
+        }
+    }
+
+    @Override
+    protected void put(BaseTask task) {
+        super.put(task);
+        writeSlot(task);
+    }
+
+    @Override
+    public void add(Task task) {
+        super.add(task);
+        writeSlot(findTask(task.getId()));
+    }
+
+    @Override
+    public void add(Epic epic) {
+        super.add(epic);
+        writeSlot(findTask(epic.getId()));
+    }
+
+    @Override
+    public void add(Subtask subtask) {
+        super.add(subtask);
+        writeSlot(findTask(subtask.getId()));
+    }
+
+    @Override
+    public void clearTasksOfAnyType() {
+        super.clearTasksOfAnyType();
+        slotById.clear();
+        freeSlotCount = 0;
+        slotCount = 0;
+        slots.putInt(SLOT_COUNT_OFFSET, 0);
+        try {
+            stringsChannel.truncate(0);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось очистить файл строк");
+        }
+        stringsSize = 0;
+    }
+
+    @Override
+    public void setStatus(int taskId, Status status) {
+        super.setStatus(taskId, status);
+        int slot = slotById.get(taskId, NO_SLOT);
+        if (slot != NO_SLOT) {
+            slots.put(slotOffset(slot) + STATUS_OFFSET, (byte) status.ordinal());
+        }
+    }
+}
@@ -6,6 +6,9 @@ public class Node {
     private BaseTask data;
     private Node prev;
     private Node next;
+    private int taskId;
+    //примерный объем памяти, который занимает копия таски, для ограничения размера истории
+    private int estimatedSize;
 
     public Node() {
     }
@@ -37,4 +40,20 @@ public class Node {
     public void setNext(Node next) {
         this.next = next;
     }
+
+    public int getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(int taskId) {
+        this.taskId = taskId;
+    }
+
+    public int getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    public void setEstimatedSize(int estimatedSize) {
+        this.estimatedSize = estimatedSize;
+    }
 }
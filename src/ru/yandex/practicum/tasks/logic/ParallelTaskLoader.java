@@ -0,0 +1,170 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.TaskCsvParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+//Параллельная загрузка тасок из файла в формате BaseTask.toString.
+//Файл делится на куски по границам записей, куски разбираются на ForkJoinPool,
+//а готовые таски отдаются потребителю в одном потоке и в порядке файла.
+//Одновременно в памяти находится не больше 2 * parallelism разобранных кусков
+public class ParallelTaskLoader {
+    private static final int SCAN_BUFFER_SIZE = 1024 * 1024;
+
+    private ParallelTaskLoader() {
+    }
+
+    //Возвращает количество прочитанных тасок
+    public static long readTasks(File file, long chunkSize, Consumer<BaseTask> taskConsumer) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int maxChunksInProgress = 2 * pool.getParallelism();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            List<Long> boundaries = splitIntoChunks(channel, chunkSize);
+            Deque<Future<List<BaseTask>>> chunksInProgress = new ArrayDeque<>();
+            long count = 0;
+            int nextChunk = 0;
+            while (nextChunk < boundaries.size() - 1 || !chunksInProgress.isEmpty()) {
+                while (nextChunk < boundaries.size() - 1 && chunksInProgress.size() < maxChunksInProgress) {
+                    long start = boundaries.get(nextChunk);
+                    long end = boundaries.get(nextChunk + 1);
+                    chunksInProgress.add(pool.submit(() -> parseChunk(channel, start, end)));
+                    nextChunk++;
+                }
+                for (BaseTask task : await(chunksInProgress.poll())) {
+                    taskConsumer.accept(task);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static List<BaseTask> await(Future<List<BaseTask>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Загрузка файла прервана", e);
+        } catch (ExecutionException e) {
+            //исключение разбора отдаем как есть, чтобы сообщение не отличалось от последовательной загрузки
+            if (e.getCause() instanceof UncheckedIOException ioException) {
+                throw ioException.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    //Возвращает границы кусков: 0, концы записей примерно через каждые chunkSize байт и размер файла.
+    //Концы записей ищет TaskCsvParser.findRecordEnd, тот же, что и при последовательной загрузке, поэтому
+    //файл приходится один раз просмотреть целиком. Просматриваются байты, а не символы:
+    //'"', ',', '\r' и '\n' в UTF-8 не встречаются внутри многобайтовых символов.
+    //В буфере остается хвост с незаконченной записью, а если она не помещается, буфер растет
+    private static List<Long> splitIntoChunks(FileChannel channel, long chunkSize) throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        long size = channel.size();
+        byte[] buffer = new byte[SCAN_BUFFER_SIZE];
+        int length = 0;
+        //позиция в файле первого байта буфера, всегда начало записи
+        long bufferStart = 0;
+        long nextBoundary = chunkSize;
+        while (bufferStart + length < size) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int read = channel.read(ByteBuffer.wrap(buffer, length, buffer.length - length), bufferStart + length);
+            if (read <= 0) {
+                break;
+            }
+            length += read;
+            CharSequence bytes = new AsciiCharSequence(buffer, length);
+            int recordStart = 0;
+            int recordEnd;
+            while ((recordEnd = TaskCsvParser.findRecordEnd(bytes, recordStart)) >= 0) {
+                recordStart = recordEnd;
+                if (bufferStart + recordEnd >= nextBoundary) {
+                    boundaries.add(bufferStart + recordEnd);
+                    nextBoundary = bufferStart + recordEnd + chunkSize;
+                }
+            }
+            System.arraycopy(buffer, recordStart, buffer, 0, length - recordStart);
+            bufferStart += recordStart;
+            length -= recordStart;
+        }
+        if (boundaries.getLast() < size) {
+            boundaries.add(size);
+        }
+        return boundaries;
+    }
+
+    //Байты, прочитанные как символы Latin-1: разделители CSV совпадают, а байты многобайтовых
+    //символов UTF-8 становятся символами >= 0x80, которые findRecordEnd пропускает
+    private static class AsciiCharSequence implements CharSequence {
+        private final byte[] bytes;
+        private final int length;
+
+        AsciiCharSequence(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private static List<BaseTask> parseChunk(FileChannel channel, long start, long end) {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Кусок файла больше 2 ГБ: уменьшите parallelLoadChunkSize");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        TaskCsvParser parser = new TaskCsvParser(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+        List<BaseTask> tasks = new ArrayList<>();
+        while (parser.hasNext()) {
+            tasks.add(parser.next());
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,287 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.exceptions.TaskNotFoundException;
+import ru.yandex.practicum.tasks.exceptions.WrongTaskTypeException;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+import ru.yandex.practicum.tasks.model.enums.TaskType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+//Потокобезопасный менеджер для нагрузки, где чтений намного больше, чем изменений.
+//Состояние хранит InMemoryTaskManager, доступ к нему защищен StampedLock:
+// - изменения берут блокировку на запись;
+// - getTask, getEpic, getSubtask и getSubtasksOfEpic читают без блокировки (optimistic read)
+//   и проверяют штамп. Если во время чтения что-то менялось, чтение повторяется под блокировкой на чтение;
+// - getPrioritizedTasks отдает неизменяемый снимок, который строится один раз после каждого изменения;
+// - списки и история читаются под блокировкой на чтение.
+//История в чтениях пишется уже после проверки штампа, под монитором historyManager
+public class StampedLockTaskManager implements TaskManager {
+    private final StampedLock lock = new StampedLock();
+    private final HistoryManager historyManager;
+    private final InMemoryTaskManager taskManager;
+    //null - снимок устарел и будет построен при следующем чтении
+    private volatile List<BaseTask> prioritizedTasks;
+
+    public StampedLockTaskManager(HistoryManager historyManager) {
+        this.historyManager = new LockedHistoryManager(historyManager);
+        taskManager = new InMemoryTaskManager(this.historyManager);
+    }
+
+    //Чтение без блокировки. Во время изменения чтение может увидеть структуры в промежуточном состоянии
+    //и упасть, поэтому любое исключение, как и неудачная проверка штампа, означает повтор под блокировкой
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T readLocked(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void write(Runnable writer) {
+        long stamp = lock.writeLock();
+        try {
+            writer.run();
+        } finally {
+            prioritizedTasks = null;
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //Таска заданного типа без записи в историю
+    private BaseTask getTaskOfType(int id, TaskType taskType) {
+        BaseTask task = taskManager.findTask(id);
+        if (task == null) {
+            throw new TaskNotFoundException("Не найден таск с id = " + id);
+        }
+        if (task.getTaskType() != taskType) {
+            throw new WrongTaskTypeException(switch (taskType) {
+                case TASK -> "Задача не является таском";
+                case EPIC -> "Задача не является эпиком";
+                case SUBTASK -> "Задача не является сабтаском";
+            });
+        }
+        return task;
+    }
+
+    private BaseTask getAndRecord(int id, TaskType taskType) {
+        BaseTask task = read(() -> getTaskOfType(id, taskType));
+        historyManager.add(task);
+        return task;
+    }
+
+    @Override
+    public void clearTasksOfAnyType() {
+        write(taskManager::clearTasksOfAnyType);
+    }
+
+    @Override
+    public void clearTasks() {
+        write(taskManager::clearTasks);
+    }
+
+    @Override
+    public void clearSubTasks() {
+        write(taskManager::clearSubTasks);
+    }
+
+    @Override
+    public void clearEpics() {
+        write(taskManager::clearEpics);
+    }
+
+    @Override
+    public Epic getEpic(int epicId) {
+        return (Epic) getAndRecord(epicId, TaskType.EPIC);
+    }
+
+    @Override
+    public Task getTask(int taskId) {
+        return (Task) getAndRecord(taskId, TaskType.TASK);
+    }
+
+    @Override
+    public Subtask getSubtask(int subtaskId) {
+        return (Subtask) getAndRecord(subtaskId, TaskType.SUBTASK);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksOfEpic(int epicId) {
+        List<Subtask> result = read(() -> ((Epic) getTaskOfType(epicId, TaskType.EPIC)).getSubtasks());
+        historyManager.addAll(result);
+        return result;
+    }
+
+    @Override
+    public List<Task> getListTasks() {
+        return readLocked(taskManager::getListTasks);
+    }
+
+    @Override
+    public List<Epic> getListEpics() {
+        return readLocked(taskManager::getListEpics);
+    }
+
+    @Override
+    public List<Subtask> getListSubtasks() {
+        return readLocked(taskManager::getListSubtasks);
+    }
+
+    @Override
+    public void add(Task task) {
+        write(() -> taskManager.add(task));
+    }
+
+    @Override
+    public void add(Epic epic) {
+        write(() -> taskManager.add(epic));
+    }
+
+    @Override
+    public void add(Subtask subtask) {
+        write(() -> taskManager.add(subtask));
+    }
+
+    @Override
+    public void removeTask(int id) {
+        write(() -> taskManager.removeTask(id));
+    }
+
+    @Override
+    public void removeSubTask(int id) {
+        write(() -> taskManager.removeSubTask(id));
+    }
+
+    @Override
+    public void removeEpic(int id) {
+        write(() -> taskManager.removeEpic(id));
+    }
+
+    @Override
+    public void remove(Task task) {
+        removeTask(task.getId());
+    }
+
+    @Override
+    public void remove(Epic epic) {
+        removeEpic(epic.getId());
+    }
+
+    @Override
+    public void remove(Subtask task) {
+        removeSubTask(task.getId());
+    }
+
+    @Override
+    public void setStatus(int taskId, Status status) {
+        write(() -> taskManager.setStatus(taskId, status));
+    }
+
+    @Override
+    public void setStatus(Task task, Status status) {
+        setStatus(task.getId(), status);
+    }
+
+    @Override
+    public void setStatus(Subtask subtask, Status status) {
+        setStatus(subtask.getId(), status);
+    }
+
+    //Под блокировкой на чтение: история в режиме ID_ONLY обращается к таскам менеджера
+    @Override
+    public List<BaseTask> getHistory() {
+        return readLocked(taskManager::getHistory);
+    }
+
+    @Override
+    public List<BaseTask> getPrioritizedTasks() {
+        List<BaseTask> snapshot = prioritizedTasks;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long stamp = lock.readLock();
+        try {
+            //под блокировкой на чтение изменений нет, поэтому снимок не устареет до unlockRead
+            snapshot = taskManager.getPrioritizedTasks();
+            prioritizedTasks = snapshot;
+            return snapshot;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //История вызывается и из чтений без блокировки, и из изменений под блокировкой на запись,
+    //поэтому все обращения к ней идут под ее монитором
+    private static class LockedHistoryManager implements HistoryManager {
+        private final HistoryManager historyManager;
+
+        LockedHistoryManager(HistoryManager historyManager) {
+            this.historyManager = historyManager;
+        }
+
+        @Override
+        public void add(BaseTask task) {
+            synchronized (historyManager) {
+                historyManager.add(task);
+            }
+        }
+
+        @Override
+        public void addAll(Collection<? extends BaseTask> tasks) {
+            synchronized (historyManager) {
+                historyManager.addAll(tasks);
+            }
+        }
+
+        @Override
+        public List<BaseTask> getHistory() {
+            synchronized (historyManager) {
+                return historyManager.getHistory();
+            }
+        }
+
+        @Override
+        public void remove(int id) {
+            synchronized (historyManager) {
+                historyManager.remove(id);
+            }
+        }
+
+        @Override
+        public void setTaskSource(IntFunction<BaseTask> taskSource) {
+            synchronized (historyManager) {
+                historyManager.setTaskSource(taskSource);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.logic.enums.DurabilityPolicy;
+import ru.yandex.practicum.tasks.logic.enums.StorageFormat;
+
+//Настройки хранения FileBackedTaskManager
+public class StorageSettings {
+    //true - каждая операция дописывается одной записью в журнал <файл>.wal,
+    //false - после каждой операции файл перезаписывается целиком
+    private boolean journalEnabled;
+    //когда в журнале набирается столько записей или байт, в фоне пишется новый снимок и журнал начинается заново.
+    //Значение <= 0 отключает соответствующий порог
+    private long compactionRecordThreshold = 10_000;
+    private long compactionSizeThreshold = 8 * 1024 * 1024;
+    //когда данные считаются записанными: см. DurabilityPolicy
+    private DurabilityPolicy durabilityPolicy = DurabilityPolicy.OS_BUFFERED;
+    //для GROUP_COMMIT: пачка записывается, когда в ней набирается столько записей
+    //или когда с первой записи пачки проходит столько миллисекунд
+    private int groupCommitMaxRecords = 128;
+    private long groupCommitIntervalMillis = 2;
+    //> 0 - отложенная запись снимка: операции только помечают менеджер измененным,
+    //а фоновый поток раз в столько миллисекунд сохраняет все изменения одной записью.
+    //В режиме журнала не используется: там каждая операция и так стоит одну короткую запись
+    private long writeBehindIntervalMillis;
+    //формат, в котором пишется снимок. При загрузке формат файла определяется по его заголовку
+    private StorageFormat storageFormat = StorageFormat.CSV;
+    //true - текстовый файл больше parallelLoadChunkSize байт при загрузке делится на куски,
+    //которые разбираются параллельно на ForkJoinPool. Бинарные файлы всегда читаются последовательно
+    private boolean parallelLoadEnabled;
+    private long parallelLoadChunkSize = 8 * 1024 * 1024;
+
+    public boolean isJournalEnabled() {
+        return journalEnabled;
+    }
+
+    public void setJournalEnabled(boolean journalEnabled) {
+        this.journalEnabled = journalEnabled;
+    }
+
+    public long getCompactionRecordThreshold() {
+        return compactionRecordThreshold;
+    }
+
+    public void setCompactionRecordThreshold(long compactionRecordThreshold) {
+        this.compactionRecordThreshold = compactionRecordThreshold;
+    }
+
+    public long getCompactionSizeThreshold() {
+        return compactionSizeThreshold;
+    }
+
+    public void setCompactionSizeThreshold(long compactionSizeThreshold) {
+        this.compactionSizeThreshold = compactionSizeThreshold;
+    }
+
+    public DurabilityPolicy getDurabilityPolicy() {
+        return durabilityPolicy;
+    }
+
+    public void setDurabilityPolicy(DurabilityPolicy durabilityPolicy) {
+        this.durabilityPolicy = durabilityPolicy;
+    }
+
+    public int getGroupCommitMaxRecords() {
+        return groupCommitMaxRecords;
+    }
+
+    public void setGroupCommitMaxRecords(int groupCommitMaxRecords) {
+        this.groupCommitMaxRecords = groupCommitMaxRecords;
+    }
+
+    public long getGroupCommitIntervalMillis() {
+        return groupCommitIntervalMillis;
+    }
+
+    public void setGroupCommitIntervalMillis(long groupCommitIntervalMillis) {
+        this.groupCommitIntervalMillis = groupCommitIntervalMillis;
+    }
+
+    public long getWriteBehindIntervalMillis() {
+        return writeBehindIntervalMillis;
+    }
+
+    public void setWriteBehindIntervalMillis(long writeBehindIntervalMillis) {
+        this.writeBehindIntervalMillis = writeBehindIntervalMillis;
+    }
+
+    public StorageFormat getStorageFormat() {
+        return storageFormat;
+    }
+
+    public void setStorageFormat(StorageFormat storageFormat) {
+        this.storageFormat = storageFormat;
+    }
+
+    public boolean isParallelLoadEnabled() {
+        return parallelLoadEnabled;
+    }
+
+    public void setParallelLoadEnabled(boolean parallelLoadEnabled) {
+        this.parallelLoadEnabled = parallelLoadEnabled;
+    }
+
+    public long getParallelLoadChunkSize() {
+        return parallelLoadChunkSize;
+    }
+
+    public void setParallelLoadChunkSize(long parallelLoadChunkSize) {
+        this.parallelLoadChunkSize = parallelLoadChunkSize;
+    }
+}
@@ -0,0 +1,340 @@
+package ru.yandex.practicum.tasks.logic;
+
+import ru.yandex.practicum.tasks.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tasks.exceptions.ManagerSaveException;
+import ru.yandex.practicum.tasks.logic.enums.DurabilityPolicy;
+import ru.yandex.practicum.tasks.logic.enums.JournalOperation;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.enums.Status;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+//Журнал операций (write-ahead log): одна строка на каждую изменяющую операцию менеджера.
+//Формат строки: <операция>,<аргументы>, например "STATUS,5,DONE" или "ADD,<таска в формате BaseTask.toString>"
+public class TaskJournal {
+    public static final String CLEAR_ALL = "ALL";
+
+    private final File file;
+    private final DurabilityPolicy durabilityPolicy;
+    private final int groupCommitMaxRecords;
+    private final long groupCommitIntervalNanos;
+    private FileChannel channel;
+    private long recordCount;
+    private long size;
+
+    //состояние группового коммита, защищено монитором журнала
+    private List<ByteBuffer> pending = new ArrayList<>();
+    private long firstPendingNanos;
+    private long appendedSequence;
+    private long durableSequence;
+    private IOException flushError;
+    private boolean closing;
+    private Thread flusher;
+
+    private long writtenRecords;
+    private long batches;
+    private long forces;
+    private int maxBatchSize;
+
+    public TaskJournal(File file) {
+        this(file, DurabilityPolicy.OS_BUFFERED, 1, 0);
+    }
+
+    public TaskJournal(File file, DurabilityPolicy durabilityPolicy, int groupCommitMaxRecords, long groupCommitIntervalMillis) {
+        this.file = file;
+        this.durabilityPolicy = durabilityPolicy;
+        this.groupCommitMaxRecords = Math.max(1, groupCommitMaxRecords);
+        this.groupCommitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitIntervalMillis);
+    }
+
+    public static String addRecord(BaseTask task) {
+        return JournalOperation.ADD + "," + task;
+    }
+
+    public static String statusRecord(int id, Status status) {
+        return JournalOperation.STATUS + "," + id + "," + status;
+    }
+
+    public static String removeRecord(int id) {
+        return JournalOperation.REMOVE + "," + id;
+    }
+
+    public static String clearRecord(String target) {
+        return JournalOperation.CLEAR + "," + target;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    public synchronized long getSize() {
+        return channel == null ? file.length() : size;
+    }
+
+    public synchronized boolean isOpen() {
+        return channel != null;
+    }
+
+    public synchronized JournalStatistics getStatistics() {
+        return new JournalStatistics(writtenRecords, batches, forces, maxBatchSize);
+    }
+
+    //truncate = true - начать журнал заново (например, после записи полного снимка)
+    public synchronized void open(boolean truncate) {
+        try {
+            channel = truncate
+                    ? FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)
+                    : FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            size = channel.size();
+            channel.position(size);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось открыть журнал");
+        }
+        if (truncate) {
+            recordCount = 0;
+        }
+        if (durabilityPolicy == DurabilityPolicy.GROUP_COMMIT) {
+            closing = false;
+            flusher = new Thread(this::runFlusher, "journal-group-commit");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    //Возвращает номер записи, который можно передать в awaitDurable
+    public long append(String record) {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(record + "\n");
+        synchronized (this) {
+            recordCount++;
+            size += buffer.remaining();
+            if (durabilityPolicy == DurabilityPolicy.GROUP_COMMIT) {
+                if (pending.isEmpty()) {
+                    firstPendingNanos = System.nanoTime();
+                }
+                pending.add(buffer);
+                notifyAll();
+                return ++appendedSequence;
+            }
+            try {
+                write(new ByteBuffer[]{buffer});
+            } catch (IOException e) {
+                throw new ManagerSaveException("Не удалось записать в журнал");
+            }
+            countBatch(1);
+            durableSequence = ++appendedSequence;
+            return appendedSequence;
+        }
+    }
+
+    //Ждет, пока запись с указанным номером не окажется на диске (имеет смысл только для GROUP_COMMIT)
+    public synchronized void awaitDurable(long sequence) {
+        boolean interrupted = false;
+        while (durableSequence < sequence && flushError == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (flushError != null && durableSequence < sequence) {
+            throw new ManagerSaveException("Не удалось записать в журнал");
+        }
+    }
+
+    public void flush() {
+        long sequence;
+        synchronized (this) {
+            sequence = appendedSequence;
+        }
+        awaitDurable(sequence);
+    }
+
+    //Вызывается только под монитором журнала или из потока группового коммита,
+    //поэтому в канал всегда пишет один поток
+    private void write(ByteBuffer[] buffers) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        if (durabilityPolicy != DurabilityPolicy.OS_BUFFERED) {
+            channel.force(false);
+        }
+    }
+
+    private void countBatch(int batchSize) {
+        writtenRecords += batchSize;
+        batches++;
+        maxBatchSize = Math.max(maxBatchSize, batchSize);
+        if (durabilityPolicy != DurabilityPolicy.OS_BUFFERED) {
+            forces++;
+        }
+    }
+
+    //Поток группового коммита: копит записи, пока их не наберется groupCommitMaxRecords
+    //или пока с первой из них не пройдет groupCommitIntervalMillis, и пишет их одной пачкой
+    private void runFlusher() {
+        while (true) {
+            List<ByteBuffer> batch;
+            long batchSequence;
+            synchronized (this) {
+                try {
+                    while (true) {
+                        if (pending.isEmpty()) {
+                            if (closing) {
+                                return;
+                            }
+                            wait();
+                            continue;
+                        }
+                        long remainingNanos = firstPendingNanos + groupCommitIntervalNanos - System.nanoTime();
+                        if (closing || pending.size() >= groupCommitMaxRecords || remainingNanos <= 0) {
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                    }
+                } catch (InterruptedException e) {
+                    closing = true;
+                    continue;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+                batchSequence = appendedSequence;
+            }
+            //запись идет без монитора, чтобы другие потоки могли копить следующую пачку
+            try {
+                write(batch.toArray(new ByteBuffer[0]));
+                synchronized (this) {
+                    countBatch(batch.size());
+                    durableSequence = batchSequence;
+                    notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    flushError = e;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    //Отдает записи журнала по порядку. Последняя запись без \n - это дописывание, прерванное падением процесса:
+    //она не применяется, а файл обрезается по концу последней целой записи, чтобы следующая запись не склеилась с ней
+    public void replay(Consumer<String> recordConsumer) {
+        if (!file.exists()) {
+            return;
+        }
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new ManagerLoadException("Не удалось прочитать журнал");
+        }
+        //поля тасок в кавычках могут содержать переводы строк, поэтому запись заканчивается только на \n вне кавычек.
+        //Кавычка и \n в UTF-8 однобайтовые и не встречаются внутри других символов, поэтому границы ищутся прямо в байтах
+        boolean inQuotes = false;
+        int recordStart = 0;
+        for (int i = 0; i < content.length; i++) {
+            byte b = content[i];
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                acceptRecord(content, recordStart, i, recordConsumer);
+                recordStart = i + 1;
+            }
+        }
+        if (recordStart < content.length) {
+            truncate(recordStart);
+        }
+    }
+
+    private void acceptRecord(byte[] content, int start, int end, Consumer<String> recordConsumer) {
+        if (end > start && content[end - 1] == '\r') {
+            end--;
+        }
+        if (end > start) {
+            recordConsumer.accept(new String(content, start, end - start, StandardCharsets.UTF_8));
+            recordCount++;
+        }
+    }
+
+    private void truncate(long length) {
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            fileChannel.truncate(length);
+        } catch (IOException e) {
+            throw new ManagerLoadException("Не удалось отрезать недописанную запись журнала");
+        }
+    }
+
+    //Закрывает журнал и переименовывает его файл, чтобы следующие записи шли в новый пустой журнал
+    public void rotateTo(File target) {
+        close();
+        try {
+            Files.move(file.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Не удалось переименовать журнал");
+        }
+        open(true);
+    }
+
+    //Дописывает накопленные записи и закрывает файл
+    public void close() {
+        Thread flusherToStop;
+        synchronized (this) {
+            if (channel == null) {
+                return;
+            }
+            closing = true;
+            notifyAll();
+            flusherToStop = flusher;
+            flusher = null;
+        }
+        if (flusherToStop != null) {
+            try {
+                flusherToStop.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ManagerSaveException("Не удалось закрыть журнал");
+            } finally {
+                channel = null;
+            }
+            if (flushError != null) {
+                flushError = null;
+                throw new ManagerSaveException("Не удалось записать в журнал");
+            }
+        }
+    }
+
+    public void delete() {
+        close();
+        if (file.exists() && !file.delete()) {
+            throw new ManagerSaveException("Не удалось удалить журнал");
+        }
+        recordCount = 0;
+    }
+}
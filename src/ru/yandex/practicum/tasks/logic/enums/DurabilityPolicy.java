@@ -0,0 +1,11 @@
+package ru.yandex.practicum.tasks.logic.enums;
+
+public enum DurabilityPolicy {
+    //каждая запись сразу сбрасывается на диск (FileChannel.force)
+    EVERY_OP,
+    //записи нескольких вызовов объединяются в одну запись и один force,
+    //вызывающий поток ждет, пока его запись не окажется на диске
+    GROUP_COMMIT,
+    //данные отдаются ОС без ожидания записи на диск
+    OS_BUFFERED
+}
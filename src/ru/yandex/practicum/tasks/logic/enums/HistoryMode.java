@@ -0,0 +1,12 @@
+package ru.yandex.practicum.tasks.logic.enums;
+
+//Что InMemoryHistoryManager хранит для просмотренной таски
+public enum HistoryMode {
+    //копию таски на момент просмотра
+    COPY_ON_ADD,
+    //ссылку на таску, копия делается в getHistory: таска в текущем состоянии
+    COPY_ON_READ,
+    //только id, таска берется у менеджера в getHistory (см. HistoryManager.setTaskSource),
+    //удаленные таски пропускаются
+    ID_ONLY
+}
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.tasks.logic.enums;
+
+public enum JournalOperation {
+    ADD,
+    STATUS,
+    REMOVE,
+    CLEAR
+}
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.tasks.logic.enums;
+
+public enum StorageFormat {
+    //строки в формате BaseTask.toString
+    CSV,
+    //бинарные записи, см. BinaryTaskFormat
+    BINARY
+}
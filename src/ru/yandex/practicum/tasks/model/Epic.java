@@ -7,62 +7,54 @@ import ru.yandex.practicum.tasks.model.enums.TaskType;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class Epic extends BaseTask {
 
     private LocalDateTime endTime;
-    private List<Subtask> subtasks = new ArrayList<>();
+    //Поля эпика не пересчитываются по всем сабтаскам, а поддерживаются при каждом изменении:
+    //счетчики статусов, сумма продолжительностей, мультимножества начал и окончаний.
+    //Для каждой сабтаски запоминаются учтенные значения, чтобы при удалении вычесть ровно то, что было добавлено
+    private final Map<Integer, CountedSubtask> subtasks = new LinkedHashMap<>();
+    private final int[] statusCounts = new int[Status.values().length];
+    private Duration totalDuration = Duration.ZERO;
+    private int subtasksWithDuration;
+    private final TreeMap<LocalDateTime, Integer> startTimes = new TreeMap<>();
+    private final TreeMap<LocalDateTime, Integer> endTimes = new TreeMap<>();
+    private final TimeSpanIndex timeSpanIndex = new TimeSpanIndex();
 
     public Epic(String name, String description) {
         super(name, description);
     }
 
-    private void calculateDuration() {
-        if (subtasks.stream().allMatch(s -> s.getDuration() == null)) {
-            duration = null;
-        } else {
-            duration = subtasks.stream()
-                    .map(BaseTask::getDuration)
-                    .filter(Objects::nonNull)
-                    .reduce(Duration.ZERO, (accDuration, currentDuration) -> currentDuration.plus(accDuration), (accDuration, currentDuration) -> accDuration);
-        }
-    }
-
-    private void calculateStartTime() {
-        startTime = subtasks.stream()
-                .map(BaseTask::getStartTime)
-                .filter(Objects::nonNull)
-                .min(LocalDateTime::compareTo)
-                .orElse(null);
-    }
-
-    private void calculateEndTime() {
-        endTime = subtasks.stream()
-                .map(BaseTask::getEndTime)
-                .filter(Objects::nonNull)
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
-    }
-
     public void calculateStatus() {
-        if (subtasks.stream().allMatch(t -> t.getStatus() == Status.NEW)) {
+        int count = subtasks.size();
+        if (statusCounts[Status.NEW.ordinal()] == count) {
             status = Status.NEW;
-        } else if (subtasks.stream().allMatch(t -> t.getStatus() == Status.DONE)) {
+        } else if (statusCounts[Status.DONE.ordinal()] == count) {
             status = Status.DONE;
         } else {
             status = Status.IN_PROGRESS;
         }
     }
 
+    private void calculateTimes() {
+        duration = subtasksWithDuration == 0 ? null : totalDuration;
+        startTime = startTimes.isEmpty() ? null : startTimes.firstKey();
+        endTime = endTimes.isEmpty() ? null : endTimes.lastKey();
+    }
+
     @Override
     public TaskType getTaskType() {
         return TaskType.EPIC;
     }
 
     public void addSubtask(Subtask subtask) {
-        if (subtasks.stream().anyMatch(s -> s.getId() == subtask.getId())) {
+        if (subtasks.containsKey(subtask.getId())) {
             throw new IllegalStateException("Нельзя добавить сабтаску дважды");
         }
 
@@ -70,15 +62,33 @@ public class Epic extends BaseTask {
             throw new IllegalStateException("Нельзя добавить сабтаску от другого эпика");
         }
 
-        long overlappedCount = subtasks.stream()
-                .filter(s -> BaseTask.areTimeSpansOverLapped(s.getStartTime(), s.getEndTime(), subtask.getStartTime(), subtask.getEndTime())).count();
-        if (overlappedCount > 0) {
+        LocalDateTime subtaskStartTime = subtask.getStartTime();
+        LocalDateTime subtaskEndTime = subtask.getEndTime();
+        if (!subtasks.isEmpty() && subtaskStartTime != null && subtaskEndTime != null && subtaskStartTime.isAfter(subtaskEndTime)) {
+            throw new IllegalArgumentException("timeSpan2EndTime должна быть позже timeSpan2StartTime");
+        }
+        if (timeSpanIndex.hasOverlap(subtaskStartTime, subtaskEndTime)) {
             throw new IllegalStateException("Есть пересечение с уже существующими тасками");
         }
 
-        subtasks.add(subtask);
+        CountedSubtask countedSubtask = new CountedSubtask(subtask);
+        subtasks.put(subtask.getId(), countedSubtask);
+        count(countedSubtask, 1);
+        calculateTimes();
+        calculateStatus();
+    }
 
-        calculateAll();
+    //Меняет статус сабтаски эпика и пересчитывает статус эпика за O(1)
+    public void setSubtaskStatus(int subtaskId, Status status) {
+        CountedSubtask countedSubtask = subtasks.get(subtaskId);
+        if (countedSubtask == null) {
+            throw new IllegalStateException(String.format("У эпика нет сабтаски с id = %d", subtaskId));
+        }
+        countedSubtask.subtask.setStatus(status);
+        statusCounts[countedSubtask.status.ordinal()]--;
+        countedSubtask.status = status;
+        statusCounts[status.ordinal()]++;
+        calculateStatus();
     }
 
     @Override
@@ -97,8 +107,26 @@ public class Epic extends BaseTask {
     }
 
     public void removeSubtask(int id) {
-        subtasks = subtasks.stream().filter(s -> s.getId() != id).toList();
-        calculateAll();
+        CountedSubtask countedSubtask = subtasks.remove(id);
+        if (countedSubtask == null) {
+            return;
+        }
+        count(countedSubtask, -1);
+        calculateTimes();
+        calculateStatus();
+    }
+
+    public void clearSubtasks() {
+        subtasks.clear();
+        resetCounters();
+        calculateTimes();
+        calculateStatus();
+    }
+
+    public List<Subtask> getSubtasks() {
+        List<Subtask> result = new ArrayList<>(subtasks.size());
+        subtasks.values().forEach(countedSubtask -> result.add(countedSubtask.subtask));
+        return result;
     }
 
     @Override
@@ -106,10 +134,68 @@ public class Epic extends BaseTask {
         throw new MethodIsForbiddenException("Этот метод нельзя вызывать для эпика");
     }
 
+    //Полный пересчет по текущим значениям сабтасок. Нужен, только если сабтаски меняли в обход эпика
     public void calculateAll() {
-        calculateDuration();
-        calculateStartTime();
-        calculateEndTime();
+        resetCounters();
+        for (CountedSubtask countedSubtask : subtasks.values()) {
+            countedSubtask.remember();
+            count(countedSubtask, 1);
+        }
+        calculateTimes();
         calculateStatus();
     }
+
+    //sign = 1 - добавить значения сабтаски в агрегаты, -1 - вычесть
+    private void count(CountedSubtask countedSubtask, int sign) {
+        statusCounts[countedSubtask.status.ordinal()] += sign;
+        if (countedSubtask.duration != null) {
+            totalDuration = sign > 0 ? totalDuration.plus(countedSubtask.duration) : totalDuration.minus(countedSubtask.duration);
+            subtasksWithDuration += sign;
+        }
+        if (countedSubtask.startTime != null) {
+            updateMultiset(startTimes, countedSubtask.startTime, sign);
+        }
+        if (countedSubtask.endTime != null) {
+            updateMultiset(endTimes, countedSubtask.endTime, sign);
+        }
+        if (sign > 0) {
+            timeSpanIndex.add(countedSubtask.subtask.getId(), countedSubtask.startTime, countedSubtask.endTime);
+        } else {
+            timeSpanIndex.remove(countedSubtask.subtask.getId(), countedSubtask.startTime);
+        }
+    }
+
+    private static void updateMultiset(TreeMap<LocalDateTime, Integer> multiset, LocalDateTime time, int sign) {
+        multiset.merge(time, sign, (oldCount, delta) -> oldCount + delta == 0 ? null : oldCount + delta);
+    }
+
+    private void resetCounters() {
+        Arrays.fill(statusCounts, 0);
+        totalDuration = Duration.ZERO;
+        subtasksWithDuration = 0;
+        startTimes.clear();
+        endTimes.clear();
+        timeSpanIndex.clear();
+    }
+
+    //Сабтаска и значения, с которыми она учтена в агрегатах эпика
+    private static class CountedSubtask {
+        private final Subtask subtask;
+        private Status status;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private Duration duration;
+
+        CountedSubtask(Subtask subtask) {
+            this.subtask = subtask;
+            remember();
+        }
+
+        void remember() {
+            status = subtask.getStatus();
+            startTime = subtask.getStartTime();
+            endTime = subtask.getEndTime();
+            duration = subtask.getDuration();
+        }
+    }
 }
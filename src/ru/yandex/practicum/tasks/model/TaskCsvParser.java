@@ -0,0 +1,420 @@
+package ru.yandex.practicum.tasks.model;
+
+import ru.yandex.practicum.tasks.model.enums.Status;
+import ru.yandex.practicum.tasks.model.enums.TaskType;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+//Разбор тасок в формате BaseTask.toString прямо из CharSequence (String, CharBuffer и т.п.).
+//Поля не вырезаются в отдельные строки: парсер запоминает границы полей и разбирает
+//числа, типы, статусы и даты по символам. Строки создаются только для name и description.
+//Поля в двойных кавычках могут содержать запятые, переводы строк и кавычки (записываются как "").
+//Поле считается взятым в кавычки, только если кавычка закрыта и сразу после нее идет запятая или конец записи.
+//Иначе кавычка - часть текста, как в старых файлах, которые писались без кавычек и читались через split(",")
+public class TaskCsvParser {
+    private static final String NULL = "null";
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    //больше 8 полей в строке не бывает, лишние поля пропускаются
+    private static final int MAX_FIELDS = 8;
+    private static final int ID = 0;
+    private static final int TYPE = 1;
+    private static final int NAME = 2;
+    private static final int STATUS = 3;
+    private static final int DESCRIPTION = 4;
+    private static final int START_TIME = 5;
+    private static final int DURATION = 6;
+    private static final int EPIC_ID = 7;
+
+    private final CharSequence source;
+    //false - весь source это одна строка таски, переводы строк не разделяют записи
+    private final boolean multipleRecords;
+    private int position;
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private final boolean[] quotedFields = new boolean[MAX_FIELDS];
+    private int fieldCount;
+
+    public TaskCsvParser(CharSequence source) {
+        this(source, true);
+    }
+
+    private TaskCsvParser(CharSequence source, boolean multipleRecords) {
+        this.source = source;
+        this.multipleRecords = multipleRecords;
+    }
+
+    //Разбирает одну строку таски (аналог BaseTask.fromString)
+    public static BaseTask parse(CharSequence value) {
+        return new TaskCsvParser(value, false).parseRecord();
+    }
+
+    //Читает все таски файла. Возвращает количество прочитанных тасок.
+    //Файл читается кусками: в памяти держится только текущий кусок, а не весь файл.
+    //Каждый кусок (целые записи) разбирается как String: charAt у String заметно быстрее, чем у CharBuffer
+    public static long readTasks(Path path, Consumer<BaseTask> taskConsumer) throws IOException {
+        long count = 0;
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[READ_BUFFER_SIZE];
+            int length = 0;
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                int read = reader.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    endOfFile = true;
+                } else {
+                    length += read;
+                }
+                int recordsEnd = endOfFile ? length : getLastRecordEnd(CharBuffer.wrap(buffer, 0, length));
+                if (recordsEnd > 0) {
+                    TaskCsvParser parser = new TaskCsvParser(new String(buffer, 0, recordsEnd));
+                    while (parser.hasNext()) {
+                        taskConsumer.accept(parser.next());
+                        count++;
+                    }
+                    System.arraycopy(buffer, recordsEnd, buffer, 0, length - recordsEnd);
+                    length -= recordsEnd;
+                } else if (length == buffer.length) {
+                    //запись не поместилась в буфер целиком
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+        }
+        return count;
+    }
+
+    //Возвращает позицию сразу после последнего целого конца записи или 0, если целых записей нет
+    private static int getLastRecordEnd(CharSequence data) {
+        int result = 0;
+        int end;
+        while ((end = findRecordEnd(data, result)) >= 0) {
+            result = end;
+        }
+        return result;
+    }
+
+    //Возвращает позицию сразу после конца записи, которая начинается в start, или -1, если по data
+    //это еще нельзя сказать. data - начало файла, которое может продолжиться, поэтому кавычка и \r
+    //в конце data, как и кавычка без пары, оставляют запись незаконченной: все решат следующие символы.
+    //Поля в кавычках определяются по тому же правилу, что и в splitFields
+    public static int findRecordEnd(CharSequence data, int start) {
+        int length = data.length();
+        int position = start;
+        while (position < length) {
+            //position - начало поля
+            if (data.charAt(position) == '"') {
+                int closingQuote = findClosingQuote(data, position);
+                if (closingQuote < 0) {
+                    return -1;
+                }
+                char next = data.charAt(closingQuote + 1);
+                if (next == ',' || next == '\n' || next == '\r') {
+                    position = closingQuote + 1;
+                }
+                //иначе кавычка - часть текста и поле разбирается как обычное
+            }
+            while (position < length && data.charAt(position) != ',' && data.charAt(position) != '\n' && data.charAt(position) != '\r') {
+                position++;
+            }
+            if (position == length) {
+                return -1;
+            }
+            char c = data.charAt(position++);
+            if (c == '\r') {
+                if (position == length) {
+                    return -1;
+                }
+                if (data.charAt(position) == '\n') {
+                    position++;
+                }
+            }
+            if (c != ',') {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    //Возвращает позицию кавычки, закрывающей кавычку в start, или -1, если ее нет в data.
+    //Кавычка в самом конце data тоже не считается: это может быть первая половина ""
+    private static int findClosingQuote(CharSequence data, int start) {
+        int length = data.length();
+        int i = start + 1;
+        while (i < length) {
+            if (data.charAt(i) == '"') {
+                if (i + 1 == length) {
+                    return -1;
+                }
+                if (data.charAt(i + 1) != '"') {
+                    return i;
+                }
+                i += 2;
+                continue;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    public boolean hasNext() {
+        return position < source.length();
+    }
+
+    //Разбирает следующую запись. Записи разделяются \n, \r\n или \r вне кавычек
+    public BaseTask next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("Записей больше нет");
+        }
+        return parseRecord();
+    }
+
+    private BaseTask parseRecord() {
+        splitFields();
+        if (fieldCount < 7) {
+            throw new IllegalStateException("Неправильный формат данных");
+        }
+        if (fieldEquals(TYPE, TaskType.SUBTASK.name()) && fieldCount < 8) {
+            throw new IllegalStateException("Неправильный формат данных: для subtask должно быть 8 полей");
+        }
+
+        int id = parseInt(ID, "Неправильный формат данных: первое поле должно быть целым числом!");
+        TaskType taskType;
+        if (fieldEquals(TYPE, "TASK")) {
+            taskType = TaskType.TASK;
+        } else if (fieldEquals(TYPE, "SUBTASK")) {
+            taskType = TaskType.SUBTASK;
+        } else if (fieldEquals(TYPE, "EPIC")) {
+            taskType = TaskType.EPIC;
+        } else {
+            throw new IllegalStateException("Неправильный формат данных: второе поле должно быть EPIC, SUBTASK или TASK");
+        }
+
+        Status status;
+        if (fieldEquals(STATUS, "NEW")) {
+            status = Status.NEW;
+        } else if (fieldEquals(STATUS, "IN_PROGRESS")) {
+            status = Status.IN_PROGRESS;
+        } else if (fieldEquals(STATUS, "DONE")) {
+            status = Status.DONE;
+        } else {
+            throw new IllegalStateException("Неправильный формат данных: четвертое поле должно быть NEW, IN_PROGRESS или DONE");
+        }
+
+        LocalDateTime startTime = fieldEquals(START_TIME, NULL) ? null : parseDateTime(START_TIME);
+
+        Duration duration = null;
+        if (!fieldEquals(DURATION, NULL)) {
+            int durationInMinutes = parseInt(DURATION, "Неправильный формат данных: шестое поле должно быть числом");
+            if (durationInMinutes <= 0) {
+                throw new IllegalStateException("Продолжительность должна быть больше нуля");
+            }
+            duration = Duration.ofMinutes(durationInMinutes);
+        }
+
+        String name = text(NAME);
+        String description = text(DESCRIPTION);
+        BaseTask task;
+        if (taskType == TaskType.TASK) {
+            task = new Task(name, description);
+        } else if (taskType == TaskType.EPIC) {
+            task = new Epic(name, description);
+        } else {
+            Subtask subtask = new Subtask(name, description);
+            subtask.setEpicId(parseInt(EPIC_ID, "Неправильный формат данных: первое поле должно быть целым числом!"));
+            task = subtask;
+        }
+
+        task.setId(id);
+        if (taskType != TaskType.EPIC) {
+            task.setStatus(status);
+            task.setStartTime(startTime);
+            task.setDuration(duration);
+        }
+        return task;
+    }
+
+    //Находит границы полей текущей записи и сдвигает position на начало следующей записи
+    private void splitFields() {
+        int length = source.length();
+        int field = 0;
+        //как и String.split, не считаем пустые поля в конце строки
+        int nonEmptyFieldCount = 0;
+        while (true) {
+            int start = position;
+            int end;
+            boolean quoted = position < length && source.charAt(position) == '"' && isQuotedField(position);
+            if (quoted) {
+                start = ++position;
+                while (true) {
+                    if (source.charAt(position) == '"') {
+                        if (position + 1 < length && source.charAt(position + 1) == '"') {
+                            position += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    position++;
+                }
+                end = position++;
+            } else {
+                while (position < length && source.charAt(position) != ',' && !isRecordEnd(source.charAt(position))) {
+                    position++;
+                }
+                end = position;
+            }
+            if (field < MAX_FIELDS) {
+                fieldStarts[field] = start;
+                fieldEnds[field] = end;
+                quotedFields[field] = quoted;
+            }
+            field++;
+            if (quoted || end > start) {
+                nonEmptyFieldCount = field;
+            }
+
+            if (position >= length) {
+                break;
+            }
+            char c = source.charAt(position);
+            if (c == ',') {
+                position++;
+                continue;
+            }
+            position++;
+            if (c == '\r' && position < length && source.charAt(position) == '\n') {
+                position++;
+            }
+            break;
+        }
+        fieldCount = nonEmptyFieldCount;
+    }
+
+    //Есть ли у кавычки в позиции start закрывающая пара, после которой сразу идет запятая или конец записи
+    private boolean isQuotedField(int start) {
+        int length = source.length();
+        int i = start + 1;
+        while (i < length) {
+            if (source.charAt(i) == '"') {
+                if (i + 1 < length && source.charAt(i + 1) == '"') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1 == length || source.charAt(i + 1) == ',' || isRecordEnd(source.charAt(i + 1));
+            }
+            i++;
+        }
+        return false;
+    }
+
+    private boolean isRecordEnd(char c) {
+        return multipleRecords && (c == '\n' || c == '\r');
+    }
+
+    private boolean fieldEquals(int field, String value) {
+        int start = fieldStarts[field];
+        if (quotedFields[field] || fieldEnds[field] - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (source.charAt(start + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int parseInt(int field, String errorMessage) {
+        try {
+            return Integer.parseInt(source, fieldStarts[field], fieldEnds[field], 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(errorMessage);
+        }
+    }
+
+    private String text(int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        if (!quotedFields[field]) {
+            return source instanceof String string
+                    ? string.substring(start, end)
+                    : new StringBuilder(end - start).append(source, start, end).toString();
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            sb.append(c);
+            //внутри кавычек кавычка всегда удвоена
+            if (c == '"') {
+                i++;
+            }
+        }
+        return sb.toString();
+    }
+
+    //Формат dd.MM.yyyy HH:mm разбирается по символам. Все, что в него не укладывается
+    //(например, 24:00 или пятизначный год), отдается DateTimeFormatter, чтобы поведение не изменилось
+    private LocalDateTime parseDateTime(int field) {
+        int start = fieldStarts[field];
+        if (!quotedFields[field] && fieldEnds[field] - start == BaseTask.DATE_FORMAT.length()
+                && source.charAt(start + 2) == '.' && source.charAt(start + 5) == '.'
+                && source.charAt(start + 10) == ' ' && source.charAt(start + 13) == ':') {
+            int day = digits(start, 2);
+            int month = digits(start + 3, 2);
+            int year = digits(start + 6, 4);
+            int hour = digits(start + 11, 2);
+            int minute = digits(start + 14, 2);
+            if (day >= 1 && day <= 31 && month >= 1 && month <= 12 && year >= 1
+                    && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59) {
+                //как ResolverStyle.SMART: 31.02 превращается в последний день февраля
+                day = Math.min(day, Month.of(month).length(Year.isLeap(year)));
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+        try {
+            return LocalDateTime.parse(text(field), BaseTask.dateTimeFormatter);
+        } catch (DateTimeParseException e) {
+            throw new IllegalStateException(String.format("Неправильный формат данных: пятое поле должно быть датой в формате %s или \"null\"", BaseTask.DATE_FORMAT));
+        }
+    }
+
+    //Возвращает -1, если среди символов есть не цифра
+    private int digits(int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = source.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    //Берет поле в кавычки, если без них его нельзя будет разобрать обратно
+    public static String quote(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
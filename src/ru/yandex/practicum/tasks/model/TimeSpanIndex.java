@@ -0,0 +1,258 @@
+package ru.yandex.practicum.tasks.model;
+
+import java.time.LocalDateTime;
+
+//Индекс временных отрезков тасок: декартово дерево по (startTime, id),
+//в каждом узле хранится максимальный endTime поддерева.
+//Проверка пересечения работает за O(log n) и повторяет правила BaseTask.areTimeSpansOverLapped
+public class TimeSpanIndex {
+    private Node root;
+    private int size;
+    private int invertedCount;
+    private int seed = 0x2545F491;
+
+    public void add(BaseTask task) {
+        add(task.getId(), task.getStartTime(), task.getEndTime());
+    }
+
+    public void add(int id, LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null) {
+            return;
+        }
+        Node node = new Node(startTime, endTime, id, nextPriority());
+        root = insert(root, node);
+        size++;
+        if (node.isInverted()) {
+            invertedCount++;
+        }
+    }
+
+    public void remove(BaseTask task) {
+        remove(task.getId(), task.getStartTime());
+    }
+
+    //startTime - то же значение, с которым отрезок добавлялся
+    public void remove(int id, LocalDateTime startTime) {
+        if (startTime == null) {
+            return;
+        }
+        Node removed = find(startTime, id);
+        if (removed == null) {
+            return;
+        }
+        root = delete(root, startTime, id);
+        size--;
+        if (removed.isInverted()) {
+            invertedCount--;
+        }
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+        invertedCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    //Аналог проверки areTimeSpansOverLapped(s.getStartTime(), s.getEndTime(), startTime, endTime) для каждой таски индекса.
+    //Для уже добавленных тасок startTime всегда не null, поэтому правила сводятся к двум случаям:
+    //1) существующий отрезок начинается раньше startTime и заканчивается позже него;
+    //2) новый отрезок имеет конец и внутри него (строго) начинается существующий отрезок
+    public boolean hasOverlap(LocalDateTime startTime, LocalDateTime endTime) {
+        if (size == 0) {
+            return false;
+        }
+        if (invertedCount > 0) {
+            throw new IllegalArgumentException("timeSpan1EndTime должна быть позже timeSpan1StartTime");
+        }
+        if (startTime != null && endTime != null && startTime.isAfter(endTime)) {
+            throw new IllegalArgumentException("timeSpan2EndTime должна быть позже timeSpan2StartTime");
+        }
+        if (startTime == null) {
+            return false;
+        }
+
+        LocalDateTime maxEndTime = getMaxEndTimeOfStartedBefore(startTime);
+        if (maxEndTime != null && maxEndTime.isAfter(startTime)) {
+            return true;
+        }
+
+        if (endTime == null) {
+            return false;
+        }
+        LocalDateTime nextStartTime = getFirstStartTimeAfter(startTime);
+        return nextStartTime != null && nextStartTime.isBefore(endTime);
+    }
+
+    private LocalDateTime getMaxEndTimeOfStartedBefore(LocalDateTime time) {
+        LocalDateTime result = null;
+        Node node = root;
+        while (node != null) {
+            if (node.startTime.isBefore(time)) {
+                result = max(result, maxEndTimeOf(node.left));
+                result = max(result, node.endTime);
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    private LocalDateTime getFirstStartTimeAfter(LocalDateTime time) {
+        LocalDateTime result = null;
+        Node node = root;
+        while (node != null) {
+            if (node.startTime.isAfter(time)) {
+                result = node.startTime;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    private Node find(LocalDateTime startTime, int id) {
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(startTime, id, node);
+            if (cmp == 0) {
+                return node;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.startTime, newNode.id, node) < 0) {
+            node.left = insert(node.left, newNode);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, newNode);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node delete(Node node, LocalDateTime startTime, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(startTime, id, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, startTime, id);
+        } else {
+            node.right = delete(node.right, startTime, id);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node node) {
+        node.maxEndTime = max(node.endTime, max(maxEndTimeOf(node.left), maxEndTimeOf(node.right)));
+    }
+
+    private int nextPriority() {
+        //xorshift, чтобы не тянуть Random ради приоритетов узлов
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private static int compare(LocalDateTime startTime, int id, Node node) {
+        int cmp = startTime.compareTo(node.startTime);
+        return cmp != 0 ? cmp : Integer.compare(id, node.id);
+    }
+
+    private static LocalDateTime maxEndTimeOf(Node node) {
+        return node == null ? null : node.maxEndTime;
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static class Node {
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final int id;
+        private final int priority;
+        private LocalDateTime maxEndTime;
+        private Node left;
+        private Node right;
+
+        Node(LocalDateTime startTime, LocalDateTime endTime, int id, int priority) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.id = id;
+            this.priority = priority;
+            this.maxEndTime = endTime;
+        }
+
+        boolean isInverted() {
+            return endTime != null && startTime.isAfter(endTime);
+        }
+    }
+}
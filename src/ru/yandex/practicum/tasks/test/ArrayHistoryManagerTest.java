@@ -0,0 +1,148 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.logic.ArrayHistoryManager;
+import ru.yandex.practicum.tasks.logic.InMemoryHistoryManager;
+import ru.yandex.practicum.tasks.logic.InMemoryTaskManager;
+import ru.yandex.practicum.tasks.logic.TaskManager;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrayHistoryManagerTest {
+    private ArrayHistoryManager arrayHistoryManager;
+
+    @BeforeEach
+    void setUp() {
+        arrayHistoryManager = new ArrayHistoryManager();
+    }
+
+    @Test
+    void getHistory_shouldReturnSnapshotsOfTasksInOrderOfViewing() {
+        //Arrange
+        Task task = new Task("task1", "descr1");
+        task.setId(1);
+        task.setStatus(Status.IN_PROGRESS);
+        task.setStartTime(LocalDateTime.of(2024, 1, 1, 10, 0));
+        task.setDuration(Duration.ofMinutes(30));
+        Epic epic = new Epic("epic1", "descr2");
+        epic.setId(2);
+        Subtask subtask = new Subtask("subtask1", "descr3");
+        subtask.setId(3);
+        subtask.setEpicId(epic.getId());
+        subtask.setStatus(Status.DONE);
+
+        //Act
+        arrayHistoryManager.add(task);
+        arrayHistoryManager.add(epic);
+        arrayHistoryManager.add(subtask);
+        task.setStatus(Status.DONE);
+
+        //Assert
+        List<BaseTask> history = arrayHistoryManager.getHistory();
+        assertEquals(List.of(task, epic, subtask), history);
+        BaseTask taskInHistory = history.get(0);
+        assertNotSame(task, taskInHistory);
+        assertEquals(Status.IN_PROGRESS, taskInHistory.getStatus());
+        assertEquals(task.getStartTime(), taskInHistory.getStartTime());
+        assertEquals(task.getDuration(), taskInHistory.getDuration());
+        assertEquals(epic.getId(), ((Subtask) history.get(2)).getEpicId());
+        assertEquals(Status.DONE, history.get(2).getStatus());
+    }
+
+    @Test
+    void add_shouldMoveTaskToTheEndOfHistory() {
+        //Arrange
+        Task task = new Task("task1", "descr1");
+        TaskManager taskManager = new InMemoryTaskManager(arrayHistoryManager);
+        taskManager.add(task);
+        Task task2 = new Task("task2", "descr2");
+        taskManager.add(task2);
+
+        //Act
+        taskManager.getTask(task.getId());
+        taskManager.getTask(task2.getId());
+        taskManager.getTask(task.getId());
+
+        //Assert
+        assertEquals(List.of(task2, task), arrayHistoryManager.getHistory());
+    }
+
+    @Test
+    void remove_shouldBeAbleToDeleteFirstMiddleAndLastTask() {
+        //Arrange
+        for (int id = 1; id <= 5; id++) {
+            Task task = new Task("task" + id, "descr");
+            task.setId(id);
+            arrayHistoryManager.add(task);
+        }
+
+        //Act
+        arrayHistoryManager.remove(1);
+        arrayHistoryManager.remove(3);
+        arrayHistoryManager.remove(5);
+        arrayHistoryManager.remove(10);
+
+        //Assert
+        List<Integer> ids = arrayHistoryManager.getHistory().stream().map(BaseTask::getId).toList();
+        assertEquals(List.of(2, 4), ids);
+    }
+
+    @Test
+    void add_shouldEvictTheOldestTaskWhenCapacityIsExceeded() {
+        //Arrange
+        arrayHistoryManager = new ArrayHistoryManager(3);
+
+        //Act
+        for (int id = 1; id <= 10; id++) {
+            Task task = new Task("task" + id, "descr");
+            task.setId(id);
+            arrayHistoryManager.add(task);
+        }
+
+        //Assert
+        List<Integer> ids = arrayHistoryManager.getHistory().stream().map(BaseTask::getId).toList();
+        assertEquals(List.of(8, 9, 10), ids);
+        assertEquals(7, arrayHistoryManager.getEvictionCount());
+    }
+
+    @Test
+    void getHistory_shouldBeEqualToInMemoryHistoryManager() {
+        //Arrange
+        InMemoryHistoryManager inMemoryHistoryManager = new InMemoryHistoryManager();
+        Random random = new Random(7);
+
+        //Act
+        for (int i = 0; i < 5000; i++) {
+            int id = random.nextInt(200);
+            if (random.nextInt(4) == 0) {
+                arrayHistoryManager.remove(id);
+                inMemoryHistoryManager.remove(id);
+            } else {
+                Task task = new Task("task" + id, "descr" + i);
+                task.setId(id);
+                arrayHistoryManager.add(task);
+                inMemoryHistoryManager.add(task);
+            }
+        }
+
+        //Assert
+        List<BaseTask> expected = inMemoryHistoryManager.getHistory();
+        List<BaseTask> actual = arrayHistoryManager.getHistory();
+        assertEquals(expected, actual);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDescription(), actual.get(i).getDescription());
+        }
+        assertEquals(expected.size(), arrayHistoryManager.size());
+    }
+}
@@ -0,0 +1,117 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.logic.AsyncHistoryManager;
+import ru.yandex.practicum.tasks.logic.InMemoryHistoryManager;
+import ru.yandex.practicum.tasks.logic.InMemoryTaskManager;
+import ru.yandex.practicum.tasks.logic.TaskManager;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncHistoryManagerTest {
+    private AsyncHistoryManager asyncHistoryManager;
+
+    @BeforeEach
+    void setUp() {
+        //маленький буфер, чтобы писатели упирались в заполненный буфер и проходили по нему много кругов
+        asyncHistoryManager = AsyncHistoryManager.start(new InMemoryHistoryManager(), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncHistoryManager.close();
+    }
+
+    @Test
+    void sync_shouldApplyEventsInOrderOfAdding() {
+        //Arrange
+        for (int id = 1; id <= 100; id++) {
+            Task task = new Task("task" + id, "descr");
+            task.setId(id);
+            asyncHistoryManager.add(task);
+        }
+        asyncHistoryManager.remove(1);
+        Task task = new Task("task2", "descr");
+        task.setId(2);
+        asyncHistoryManager.add(task);
+
+        //Act
+        asyncHistoryManager.sync();
+
+        //Assert
+        List<Integer> ids = asyncHistoryManager.getHistory().stream().map(BaseTask::getId).toList();
+        List<Integer> expected = new ArrayList<>(IntStream.rangeClosed(3, 100).boxed().toList());
+        expected.add(2);
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    void sync_shouldApplyEventsOfSeveralThreads() throws InterruptedException {
+        //Arrange
+        int threadCount = 4;
+        int tasksPerThread = 1000;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            int firstId = i * tasksPerThread;
+            threads.add(new Thread(() -> {
+                for (int id = firstId; id < firstId + tasksPerThread; id++) {
+                    Task task = new Task("task" + id, "descr");
+                    task.setId(id);
+                    asyncHistoryManager.add(task);
+                }
+            }));
+        }
+
+        //Act
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        asyncHistoryManager.sync();
+
+        //Assert
+        List<Integer> ids = asyncHistoryManager.getHistory().stream().map(BaseTask::getId).sorted().toList();
+        assertEquals(IntStream.range(0, threadCount * tasksPerThread).boxed().toList(), ids);
+    }
+
+    @Test
+    void close_shouldApplyRemainingEventsAndThenWorkSynchronously() {
+        //Arrange
+        TaskManager taskManager = new InMemoryTaskManager(asyncHistoryManager);
+        Task task1 = new Task("task1", "descr1");
+        Task task2 = new Task("task2", "descr2");
+        taskManager.add(task1);
+        taskManager.add(task2);
+        taskManager.getTask(task1.getId());
+
+        //Act
+        asyncHistoryManager.close();
+        taskManager.getTask(task2.getId());
+
+        //Assert
+        assertEquals(List.of(task1, task2), taskManager.getHistory());
+    }
+
+    @Test
+    void add_shouldKeepTaskAsItWasWhenViewed() {
+        //Arrange
+        Task task = new Task("task1", "descr1");
+        task.setId(1);
+
+        //Act
+        asyncHistoryManager.add(task);
+        task.setName("changed");
+        asyncHistoryManager.sync();
+
+        //Assert
+        assertEquals("task1", asyncHistoryManager.getHistory().getFirst().getName());
+    }
+}
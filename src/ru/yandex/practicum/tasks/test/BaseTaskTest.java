@@ -347,4 +347,54 @@ class BaseTaskTest {
         //Assert
         assertEquals("5,SUBTASK,subtask1,IN_PROGRESS,descr1,01.01.2025 12:34,15,9999", str);
     }
+
+    @Test
+    void toString_shouldQuoteFieldsWithCommasQuotesAndLineBreaks() {
+        //Arrange
+        Task task = new Task("task, first", "say \"hi\"\nplease");
+        task.setId(5);
+
+        //Act
+        String str = task.toString();
+
+        //Assert
+        assertEquals("5,TASK,\"task, first\",NEW,\"say \"\"hi\"\"\nplease\",null,null", str);
+    }
+
+    @Test
+    void fromString_shouldRestoreQuotedFields() {
+        //Arrange
+        Task task = new Task("task, first", "say \"hi\"\nplease");
+        task.setId(5);
+
+        //Act
+        BaseTask result = BaseTask.fromString(task.toString());
+
+        //Assert
+        assertEquals("task, first", result.getName());
+        assertEquals("say \"hi\"\nplease", result.getDescription());
+    }
+
+    @Test
+    void fromString_shouldParseDateLikeDateTimeFormatter() {
+        //Arrange
+        String[] dates = {"01.01.2025 12:34", "31.02.2023 10:00", "29.02.2024 23:59", "01.01.2025 24:00"};
+
+        for (String date : dates) {
+            //Act
+            BaseTask task = BaseTask.fromString("1,TASK,task1,NEW,descr1," + date + ",null");
+
+            //Assert
+            assertEquals(LocalDateTime.parse(date, dateTimeFormatter), task.getStartTime());
+        }
+    }
+
+    @Test
+    void fromString_shouldThrowExceptionIfDateIsWrong() {
+        //Arrange
+        String str = "1,TASK,task1,NEW,descr1,32.01.2025 10:00,null";
+
+        //Act & Assert
+        assertThrowsExactly(IllegalStateException.class, () -> BaseTask.fromString(str));
+    }
 }
\ No newline at end of file
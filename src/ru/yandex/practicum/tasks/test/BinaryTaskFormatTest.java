@@ -0,0 +1,150 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.logic.BinaryTaskFormat;
+import ru.yandex.practicum.tasks.logic.BinaryTaskReader;
+import ru.yandex.practicum.tasks.logic.BinaryTaskWriter;
+import ru.yandex.practicum.tasks.logic.FileBackedTaskManager;
+import ru.yandex.practicum.tasks.logic.Managers;
+import ru.yandex.practicum.tasks.logic.StorageSettings;
+import ru.yandex.practicum.tasks.logic.enums.StorageFormat;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+
+import java.io.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryTaskFormatTest {
+
+    private static List<BaseTask> writeAndRead(List<BaseTask> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryTaskWriter writer = new BinaryTaskWriter(out)) {
+            writer.writeHeader();
+            for (BaseTask task : tasks) {
+                writer.write(task);
+            }
+        }
+        List<BaseTask> result = new ArrayList<>();
+        try (BinaryTaskReader reader = new BinaryTaskReader(new ByteArrayInputStream(out.toByteArray()))) {
+            reader.readHeader();
+            BaseTask task;
+            while ((task = reader.read()) != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void read_shouldReturnTheSameTasksWhichWereWritten() throws IOException {
+        //Arrange
+        Task task = new Task("Задача, с запятой", null);
+        task.setId(1);
+        task.setStatus(Status.DONE);
+        task.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 30));
+        task.setDuration(Duration.ofMinutes(90));
+        Epic epic = new Epic("epic1", "descr epic");
+        epic.setId(300);
+        Subtask subtask = new Subtask("subtask1", "x".repeat(100_000));
+        subtask.setId(70_000);
+        subtask.setEpicId(300);
+        subtask.setStatus(Status.IN_PROGRESS);
+
+        //Act
+        List<BaseTask> result = writeAndRead(List.of(task, epic, subtask));
+
+        //Assert
+        assertEquals(3, result.size());
+        assertEquals(task.toString(), result.get(0).toString());
+        assertNull(result.get(0).getDescription());
+        assertEquals(epic.toString(), result.get(1).toString());
+        assertEquals(subtask.toString(), result.get(2).toString());
+    }
+
+    @Test
+    void readHeader_shouldThrowExceptionIfDataIsNotBinaryFormat() {
+        //Arrange
+        BinaryTaskReader reader = new BinaryTaskReader(new ByteArrayInputStream("1,TASK,task1,NEW,descr1,null,null".getBytes()));
+
+        //Act & Assert
+        assertThrows(IllegalStateException.class, reader::readHeader);
+    }
+
+    @Test
+    void read_shouldThrowExceptionIfStringLengthIsCorrupted() throws IOException {
+        //Arrange
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (BinaryTaskWriter writer = new BinaryTaskWriter(header)) {
+            writer.writeHeader();
+        }
+        //флаги таски, id = 1 и длина имени: varint из 10 байт, который читается как отрицательное число
+        byte[] negativeLength = {0, 2, -1, -1, -1, -1, -1, -1, -1, -1, -1, 1};
+        //длина имени 1_000_000, а в файле после нее всего 3 байта
+        byte[] tooLongLength = {0, 2, (byte) 0xC1, (byte) 0x84, 0x3D, 'a', 'b', 'c'};
+
+        //Act & Assert
+        for (byte[] record : List.of(negativeLength, tooLongLength)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(header.toByteArray());
+            out.write(record);
+            BinaryTaskReader reader = new BinaryTaskReader(new ByteArrayInputStream(out.toByteArray()));
+            reader.readHeader();
+            assertThrows(IllegalStateException.class, reader::read);
+        }
+    }
+
+    @Test
+    void convertFromCsv_shouldCreateBinaryFileWhichCanBeLoaded() throws IOException {
+        //Arrange
+        File csvFile = File.createTempFile("prefix", "csv");
+        File binaryFile = File.createTempFile("prefix", "bin");
+        try (FileWriter fw = new FileWriter(csvFile)) {
+            fw.write("6,EPIC,epic1,IN_PROGRESS,descr1,null,null\n");
+            fw.write("7,SUBTASK,subtask1,DONE,descr2,01.01.2025 00:00,15,6\n");
+            fw.write("8,TASK,task1,NEW,descr3,null,null\n");
+        }
+
+        //Act
+        long count = BinaryTaskFormat.convertFromCsv(csvFile, binaryFile);
+
+        //Assert
+        assertEquals(3, count);
+        assertTrue(BinaryTaskFormat.isBinaryFile(binaryFile));
+        assertFalse(BinaryTaskFormat.isBinaryFile(csvFile));
+        FileBackedTaskManager manager = FileBackedTaskManager.loadFromFile(binaryFile);
+        assertEquals(Status.DONE, manager.getEpic(6).getStatus());
+        assertEquals(Duration.ofMinutes(15), manager.getSubtask(7).getDuration());
+        assertEquals("task1", manager.getTask(8).getName());
+    }
+
+    @Test
+    void add_managerWithBinaryFormatShouldSaveBinaryFile() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "bin");
+        StorageSettings settings = new StorageSettings();
+        settings.setStorageFormat(StorageFormat.BINARY);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory(), settings);
+        Epic epic = new Epic("epic1", "descr1");
+        manager.add(epic);
+        Subtask subtask = new Subtask("subtask1", "descr2");
+        subtask.setEpicId(epic.getId());
+        manager.add(subtask);
+
+        //Act
+        manager.setStatus(subtask.getId(), Status.DONE);
+
+        //Assert
+        assertTrue(BinaryTaskFormat.isBinaryFile(file));
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, settings);
+        assertEquals(Status.DONE, loaded.getEpic(epic.getId()).getStatus());
+        assertEquals("subtask1", loaded.getSubtask(subtask.getId()).getName());
+    }
+}
@@ -0,0 +1,175 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.exceptions.TaskAddException;
+import ru.yandex.practicum.tasks.exceptions.TaskNotFoundException;
+import ru.yandex.practicum.tasks.logic.ConcurrentTaskManager;
+import ru.yandex.practicum.tasks.logic.Managers;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+    private static final int THREAD_COUNT = 4;
+
+    @BeforeEach
+    void setUp() {
+        taskManager = new ConcurrentTaskManager((new Managers()).getDefaultHistory());
+    }
+
+    private void runInThreads(IntConsumer action) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            int threadNumber = i;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    action.accept(threadNumber);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Test
+    void add_tasksFromSeveralThreadsShouldGetUniqueIds() throws InterruptedException {
+        //Arrange
+        int tasksPerThread = 2000;
+
+        //Act
+        runInThreads(threadNumber -> {
+            for (int i = 0; i < tasksPerThread; i++) {
+                taskManager.add(new Task("task", "descr"));
+            }
+        });
+
+        //Assert
+        List<Task> tasks = taskManager.getListTasks();
+        assertEquals(THREAD_COUNT * tasksPerThread, tasks.size());
+        Set<Integer> ids = new HashSet<>();
+        tasks.forEach(task -> ids.add(task.getId()));
+        assertEquals(tasks.size(), ids.size());
+    }
+
+    @Test
+    void add_overlappingTasksFromSeveralThreadsShouldBeAddedOnlyOnce() throws InterruptedException {
+        //Arrange
+        int slotCount = 500;
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        AtomicInteger rejected = new AtomicInteger();
+
+        //Act
+        //каждый поток пытается занять одни и те же получасовые слоты
+        runInThreads(threadNumber -> {
+            for (int slot = 0; slot < slotCount; slot++) {
+                Task task = new Task("task", "descr");
+                task.setStartTime(start.plusMinutes(30L * slot + threadNumber));
+                task.setDuration(Duration.ofMinutes(20));
+                try {
+                    taskManager.add(task);
+                } catch (TaskAddException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        //Assert
+        List<BaseTask> prioritizedTasks = taskManager.getPrioritizedTasks();
+        assertEquals(slotCount, prioritizedTasks.size());
+        assertEquals((THREAD_COUNT - 1) * slotCount, rejected.get());
+        for (int i = 1; i < prioritizedTasks.size(); i++) {
+            assertFalse(prioritizedTasks.get(i).getStartTime().isBefore(prioritizedTasks.get(i - 1).getEndTime()));
+        }
+    }
+
+    @Test
+    void removeEpic_shouldNotLeaveSubtasksAddedByOtherThreads() throws InterruptedException {
+        //Arrange
+        List<Epic> epics = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Epic epic = new Epic("epic" + i, "descr");
+            taskManager.add(epic);
+            epics.add(epic);
+        }
+
+        //Act
+        runInThreads(threadNumber -> {
+            for (Epic epic : epics) {
+                try {
+                    if (threadNumber == 0) {
+                        taskManager.removeEpic(epic.getId());
+                    } else {
+                        Subtask subtask = new Subtask("subtask", "descr");
+                        subtask.setEpicId(epic.getId());
+                        taskManager.add(subtask);
+                    }
+                } catch (TaskNotFoundException e) {
+                    //эпик уже удален
+                }
+            }
+        });
+
+        //Assert
+        assertTrue(taskManager.getListEpics().isEmpty());
+        assertTrue(taskManager.getListSubtasks().isEmpty());
+    }
+
+    @Test
+    void setStatus_subtasksOfEpicsSharingLockShouldGiveConsistentEpicStatus() throws InterruptedException {
+        //Arrange
+        //2 блокировки на 8 эпиков: эпики делят блокировки, а потоки меняют сабтаски разных эпиков
+        taskManager = new ConcurrentTaskManager((new Managers()).getDefaultHistory(), 2);
+        List<Epic> epics = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Epic epic = new Epic("epic" + i, "descr");
+            taskManager.add(epic);
+            epics.add(epic);
+            for (int j = 0; j < 50; j++) {
+                Subtask subtask = new Subtask("subtask", "descr");
+                subtask.setEpicId(epic.getId());
+                taskManager.add(subtask);
+            }
+        }
+
+        //Act
+        runInThreads(threadNumber -> {
+            for (Epic epic : epics) {
+                for (Subtask subtask : taskManager.getSubtasksOfEpic(epic.getId())) {
+                    taskManager.setStatus(subtask, threadNumber % 2 == 0 ? Status.DONE : Status.IN_PROGRESS);
+                }
+            }
+            for (Epic epic : epics) {
+                for (Subtask subtask : taskManager.getSubtasksOfEpic(epic.getId())) {
+                    taskManager.setStatus(subtask, Status.DONE);
+                }
+            }
+        });
+
+        //Assert
+        for (Epic epic : epics) {
+            assertEquals(Status.DONE, taskManager.getEpic(epic.getId()).getStatus());
+        }
+    }
+}
@@ -10,6 +10,11 @@ import ru.yandex.practicum.tasks.model.enums.TaskType;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -310,4 +315,120 @@ class EpicTest {
         //Act && Assert
         assertDoesNotThrow(() -> epic.addSubtask(subtask2));
     }
+
+    @Test
+    void removeSubtask_shouldRecalculateTimesAndAllowToAddSubtaskAgain() {
+        //Arrange
+        Epic epic = new Epic("epic", "descr");
+        Subtask subtask1 = new Subtask("subtask1", "descr");
+        subtask1.setId(1);
+        subtask1.setStartTime(LocalDateTime.parse("01.01.2025 00:00", dateTimeFormatter));
+        subtask1.setDuration(Duration.ofHours(1));
+        Subtask subtask2 = new Subtask("subtask2", "descr");
+        subtask2.setId(2);
+        subtask2.setStartTime(LocalDateTime.parse("02.01.2025 00:00", dateTimeFormatter));
+        subtask2.setDuration(Duration.ofHours(2));
+        epic.addSubtask(subtask1);
+        epic.addSubtask(subtask2);
+
+        //Act
+        epic.removeSubtask(subtask1.getId());
+
+        //Assert
+        assertEquals(LocalDateTime.parse("02.01.2025 00:00", dateTimeFormatter), epic.getStartTime());
+        assertEquals(LocalDateTime.parse("02.01.2025 02:00", dateTimeFormatter), epic.getEndTime());
+        assertEquals(Duration.ofHours(2), epic.getDuration());
+        assertDoesNotThrow(() -> epic.addSubtask(subtask1));
+        assertEquals(2, epic.getSubtasks().size());
+    }
+
+    @Test
+    void setSubtaskStatus_shouldChangeStatusOfSubtaskAndEpic() {
+        //Arrange
+        Epic epic = new Epic("epic", "descr");
+        Subtask subtask1 = new Subtask("subtask1", "descr");
+        subtask1.setId(1);
+        Subtask subtask2 = new Subtask("subtask2", "descr");
+        subtask2.setId(2);
+        epic.addSubtask(subtask1);
+        epic.addSubtask(subtask2);
+
+        //Act
+        epic.setSubtaskStatus(1, Status.DONE);
+        Status statusWithOneDoneSubtask = epic.getStatus();
+        epic.setSubtaskStatus(2, Status.DONE);
+
+        //Assert
+        assertEquals(Status.IN_PROGRESS, statusWithOneDoneSubtask);
+        assertEquals(Status.DONE, epic.getStatus());
+        assertEquals(Status.DONE, subtask1.getStatus());
+    }
+
+    @Test
+    void clearSubtasks_shouldResetEpic() {
+        //Arrange
+        Epic epic = new Epic("epic", "descr");
+        Subtask subtask = new Subtask("subtask1", "descr");
+        subtask.setId(1);
+        subtask.setStatus(Status.DONE);
+        subtask.setStartTime(LocalDateTime.parse("01.01.2025 00:00", dateTimeFormatter));
+        subtask.setDuration(Duration.ofHours(1));
+        epic.addSubtask(subtask);
+
+        //Act
+        epic.clearSubtasks();
+
+        //Assert
+        assertEquals(Status.NEW, epic.getStatus());
+        assertNull(epic.getStartTime());
+        assertNull(epic.getEndTime());
+        assertNull(epic.getDuration());
+        assertTrue(epic.getSubtasks().isEmpty());
+    }
+
+    @Test
+    void addSubtask_aggregatesShouldBeEqualToFullRecalculation() {
+        //Arrange
+        Random random = new Random(1);
+        Epic epic = new Epic("epic", "descr");
+        Map<Integer, Subtask> subtasks = new HashMap<>();
+        LocalDateTime baseTime = LocalDateTime.parse("01.01.2025 00:00", dateTimeFormatter);
+
+        for (int i = 1; i <= 2000; i++) {
+            //Act
+            if (random.nextInt(3) == 0 && !subtasks.isEmpty()) {
+                int id = subtasks.keySet().iterator().next();
+                subtasks.remove(id);
+                epic.removeSubtask(id);
+            } else if (random.nextInt(3) == 0 && !subtasks.isEmpty()) {
+                int id = subtasks.keySet().iterator().next();
+                epic.setSubtaskStatus(id, Status.values()[random.nextInt(3)]);
+            } else {
+                Subtask subtask = new Subtask("subtask" + i, "descr");
+                subtask.setId(i);
+                subtask.setStatus(Status.values()[random.nextInt(3)]);
+                if (random.nextBoolean()) {
+                    //каждой сабтаске свой час, поэтому пересечений нет
+                    subtask.setStartTime(baseTime.plusHours(i));
+                }
+                if (random.nextBoolean()) {
+                    subtask.setDuration(Duration.ofMinutes(1 + random.nextInt(59)));
+                }
+                subtasks.put(i, subtask);
+                epic.addSubtask(subtask);
+            }
+
+            //Assert
+            Collection<Subtask> values = subtasks.values();
+            Status expectedStatus = values.stream().allMatch(s -> s.getStatus() == Status.NEW) ? Status.NEW
+                    : values.stream().allMatch(s -> s.getStatus() == Status.DONE) ? Status.DONE : Status.IN_PROGRESS;
+            assertEquals(expectedStatus, epic.getStatus());
+            assertEquals(values.stream().map(Subtask::getStartTime).filter(Objects::nonNull).min(LocalDateTime::compareTo).orElse(null),
+                    epic.getStartTime());
+            assertEquals(values.stream().map(Subtask::getEndTime).filter(Objects::nonNull).max(LocalDateTime::compareTo).orElse(null),
+                    epic.getEndTime());
+            assertEquals(values.stream().map(Subtask::getDuration).filter(Objects::nonNull).reduce(Duration::plus).orElse(null),
+                    epic.getDuration());
+        }
+    }
 }
\ No newline at end of file
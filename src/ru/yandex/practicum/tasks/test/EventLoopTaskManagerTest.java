@@ -0,0 +1,146 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.exceptions.TaskNotFoundException;
+import ru.yandex.practicum.tasks.logic.EventLoopTaskManager;
+import ru.yandex.practicum.tasks.logic.FileBackedTaskManager;
+import ru.yandex.practicum.tasks.logic.InMemoryTaskManager;
+import ru.yandex.practicum.tasks.logic.Managers;
+import ru.yandex.practicum.tasks.logic.StorageSettings;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLoopTaskManagerTest extends TaskManagerTest<EventLoopTaskManager> {
+    @BeforeEach
+    void setUp() {
+        taskManager = EventLoopTaskManager.start(new InMemoryTaskManager((new Managers()).getDefaultHistory()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskManager.close();
+    }
+
+    @Test
+    void addAsync_tasksFromSeveralThreadsShouldGetUniqueIds() throws InterruptedException {
+        //Arrange
+        int threadCount = 4;
+        int tasksPerThread = 500;
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < tasksPerThread; j++) {
+                    CompletableFuture<Integer> future = taskManager.addAsync(new Task("task", "descr"));
+                    synchronized (futures) {
+                        futures.add(future);
+                    }
+                }
+            }));
+        }
+
+        //Act
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //Assert
+        Set<Integer> ids = new HashSet<>();
+        futures.forEach(future -> ids.add(future.join()));
+        assertEquals(threadCount * tasksPerThread, ids.size());
+        assertEquals(threadCount * tasksPerThread, taskManager.getListTasks().size());
+        assertTrue(taskManager.getBatchCount() <= taskManager.getCommandCount());
+    }
+
+    @Test
+    void removeTaskAsync_shouldCompleteExceptionallyIfTaskNotFound() {
+        //Act
+        CompletableFuture<Void> future = taskManager.removeTaskAsync(100);
+
+        //Assert
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(TaskNotFoundException.class, exception.getCause());
+    }
+
+    @Test
+    void close_shouldApplyQueuedCommandsAndRejectNewOnes() {
+        //Arrange
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(taskManager.addAsync(new Task("task", "descr")));
+        }
+
+        //Act
+        taskManager.close();
+
+        //Assert
+        futures.forEach(future -> assertTrue(future.isDone()));
+        assertThrowsExactly(IllegalStateException.class, () -> taskManager.addAsync(new Task("task", "descr")));
+    }
+
+    @Test
+    void addAsync_batchShouldBeSavedToFileBeforeFuturesComplete() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file.getPath(), (new Managers()).getDefaultHistory());
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        //Act
+        try (EventLoopTaskManager eventLoopTaskManager = EventLoopTaskManager.start(fileBackedTaskManager)) {
+            for (int i = 0; i < 300; i++) {
+                futures.add(eventLoopTaskManager.addAsync(new Task("task" + i, "descr")));
+            }
+            futures.forEach(CompletableFuture::join);
+
+            //Assert
+            assertEquals(300, FileBackedTaskManager.loadFromFile(file).getListTasks().size());
+        }
+    }
+
+    @Test
+    void getTaskAsync_shouldSeeCommandsSubmittedBefore() {
+        //Arrange
+        Task task = new Task("task", "descr");
+
+        //Act
+        CompletableFuture<Task> read = taskManager.addAsync(task)
+                .thenCompose(id -> taskManager.setStatusAsync(id, Status.DONE).thenApply(ignored -> id))
+                .thenCompose(taskManager::getTaskAsync);
+
+        //Assert
+        assertEquals(Status.DONE, read.join().getStatus());
+        assertEquals(List.of(task), taskManager.getHistoryAsync().join());
+    }
+
+    @Test
+    void close_shouldCloseWrappedManagerAndSavePendingChanges() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        StorageSettings settings = new StorageSettings();
+        settings.setWriteBehindIntervalMillis(60_000);
+        EventLoopTaskManager eventLoopTaskManager = EventLoopTaskManager.start(
+                new FileBackedTaskManager(file.getPath(), (new Managers()).getDefaultHistory(), settings));
+        eventLoopTaskManager.add(new Task("task1", "descr1"));
+        eventLoopTaskManager.add(new Task("task2", "descr2"));
+
+        //Act
+        eventLoopTaskManager.close();
+
+        //Assert
+        assertEquals(2, FileBackedTaskManager.loadFromFile(file).getListTasks().size());
+    }
+}
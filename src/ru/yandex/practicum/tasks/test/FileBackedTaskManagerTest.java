@@ -6,12 +6,14 @@ import ru.yandex.practicum.tasks.exceptions.ManagerLoadException;
 import ru.yandex.practicum.tasks.exceptions.TaskNotFoundException;
 import ru.yandex.practicum.tasks.logic.FileBackedTaskManager;
 import ru.yandex.practicum.tasks.logic.Managers;
+import ru.yandex.practicum.tasks.logic.StorageSettings;
 import ru.yandex.practicum.tasks.model.Epic;
 import ru.yandex.practicum.tasks.model.Subtask;
 import ru.yandex.practicum.tasks.model.Task;
 import ru.yandex.practicum.tasks.model.enums.Status;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -130,6 +132,25 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         assertDoesNotThrow(() -> FileBackedTaskManager.loadFromFile(file));
     }
 
+    @Test
+    public void loadFromFile_subtaskWhichIsBeforeEpicShouldBeAddedToEpic() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        try (FileWriter fw = new FileWriter(file)) {
+            fw.write("7,SUBTASK,subtask1,DONE,descr2,null,null,6\n");
+            fw.write("8,TASK,task1,NEW,descr3,null,null\n");
+            fw.write("6,EPIC,epic1,NEW,descr1,null,null\n");
+        }
+
+        //Act
+        FileBackedTaskManager fileBackedTaskManager = FileBackedTaskManager.loadFromFile(file);
+
+        //Assert
+        assertEquals(List.of(7), fileBackedTaskManager.getSubtasksOfEpic(6).stream().map(Subtask::getId).toList());
+        assertEquals(Status.DONE, fileBackedTaskManager.getEpic(6).getStatus());
+        assertEquals(3, fileBackedTaskManager.getLoadStatistics().getRecords());
+    }
+
     @Test
     public void loadFromFile_shouldThrowExceptionIfFileWithOnlySubtask() throws IOException {
         //Arrange
@@ -412,4 +433,187 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         //Act && Assert
         assertThrowsExactly(ManagerLoadException.class, () -> FileBackedTaskManager.loadFromFile(file));
     }
+
+    @Test
+    public void loadFromFile_shouldNotRewriteFileWhileLoading() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        String content = "7,SUBTASK,subtask1,IN_PROGRESS,descr2,null,null,6\n6,EPIC,epic1,IN_PROGRESS,descr1,null,null\n";
+        try (FileWriter fw = new FileWriter(file)) {
+            fw.write(content);
+        }
+
+        //Act
+        FileBackedTaskManager fileBackedTaskManager = FileBackedTaskManager.loadFromFile(file);
+
+        //Assert
+        assertEquals(content, Files.readString(file.toPath()));
+        assertEquals(2, fileBackedTaskManager.getLoadStatistics().getRecords());
+        assertEquals(1, fileBackedTaskManager.getListSubtasks().size());
+    }
+
+    @Test
+    public void setStatus_withWriteBehindShouldSaveChangesOnlyOnFlush() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        StorageSettings settings = new StorageSettings();
+        settings.setWriteBehindIntervalMillis(60_000);
+        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory(), settings);
+        Task task = new Task("task1", "descr1");
+        fileBackedTaskManager.add(task);
+
+        //Act
+        fileBackedTaskManager.setStatus(task.getId(), Status.IN_PROGRESS);
+        fileBackedTaskManager.setStatus(task.getId(), Status.DONE);
+
+        //Assert
+        assertEquals("", Files.readString(file.toPath()));
+        fileBackedTaskManager.flush();
+        assertEquals("1,TASK,task1,DONE,descr1,null,null\n", Files.readString(file.toPath()));
+        fileBackedTaskManager.close();
+    }
+
+    @Test
+    public void close_withWriteBehindShouldSavePendingChanges() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        StorageSettings settings = new StorageSettings();
+        settings.setWriteBehindIntervalMillis(60_000);
+        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory(), settings);
+        fileBackedTaskManager.add(new Task("task1", "descr1"));
+        fileBackedTaskManager.add(new Task("task2", "descr2"));
+
+        //Act
+        fileBackedTaskManager.close();
+
+        //Assert
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(2, loaded.getListTasks().size());
+    }
+
+    @Test
+    public void add_withWriteBehindAfterCloseShouldSaveImmediately() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        StorageSettings settings = new StorageSettings();
+        settings.setWriteBehindIntervalMillis(60_000);
+        FileBackedTaskManager fileBackedTaskManager = new FileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory(), settings);
+        fileBackedTaskManager.add(new Task("task1", "descr1"));
+        fileBackedTaskManager.close();
+
+        //Act
+        fileBackedTaskManager.add(new Task("task2", "descr2"));
+
+        //Assert
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(2, loaded.getListTasks().size());
+    }
+
+    @Test
+    public void loadFromFile_shouldReadLegacyNameStartingWithQuoteAsText() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        try (FileWriter fw = new FileWriter(file)) {
+            fw.write("1,TASK,\"quoted name,NEW,descr1,null,null\n");
+            fw.write("2,TASK,task2,DONE,descr2,null,null\n");
+        }
+
+        //Act
+        FileBackedTaskManager fileBackedTaskManager = FileBackedTaskManager.loadFromFile(file);
+
+        //Assert
+        assertEquals("\"quoted name", fileBackedTaskManager.getTask(1).getName());
+        assertEquals(Status.DONE, fileBackedTaskManager.getTask(2).getStatus());
+    }
+
+    @Test
+    public void loadFromFile_shouldRestoreTasksWithCommasAndLineBreaksInFields() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        FileBackedTaskManager fileBackedTaskManager = FileBackedTaskManager.loadFromFile(file);
+        fileBackedTaskManager.add(new Task("task, first", "line1\nline2"));
+        fileBackedTaskManager.add(new Task("task2", "descr2"));
+
+        //Act
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+
+        //Assert
+        assertEquals(2, loaded.getListTasks().size());
+        assertEquals("task, first", loaded.getTask(1).getName());
+        assertEquals("line1\nline2", loaded.getTask(1).getDescription());
+        assertEquals("task2", loaded.getTask(2).getName());
+    }
+
+    @Test
+    public void loadFromFile_parallelLoadShouldRestoreTheSameTasksAsSequentialLoad() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        FileBackedTaskManager fileBackedTaskManager = FileBackedTaskManager.loadFromFile(file);
+        for (int i = 0; i < 50; i++) {
+            Epic epic = new Epic("epic" + i, "descr\nwith, comma");
+            fileBackedTaskManager.add(epic);
+            Subtask subtask = new Subtask("subtask" + i, "descr" + i);
+            subtask.setEpicId(epic.getId());
+            fileBackedTaskManager.add(subtask);
+            fileBackedTaskManager.add(new Task("task" + i, "descr" + i));
+        }
+        StorageSettings settings = new StorageSettings();
+        settings.setParallelLoadEnabled(true);
+        settings.setParallelLoadChunkSize(256);
+
+        //Act
+        FileBackedTaskManager sequential = FileBackedTaskManager.loadFromFile(file);
+        FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFile(file, settings);
+
+        //Assert
+        assertEquals(sequential.getLoadStatistics().getRecords(), parallel.getLoadStatistics().getRecords());
+        assertEquals(sequential.getListTasks().toString(), parallel.getListTasks().toString());
+        assertEquals(sequential.getListEpics().toString(), parallel.getListEpics().toString());
+        assertEquals(sequential.getListSubtasks().toString(), parallel.getListSubtasks().toString());
+    }
+
+    @Test
+    public void loadFromFile_parallelLoadShouldSplitFileAfterStrayQuote() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        try (FileWriter fw = new FileWriter(file)) {
+            //кавычка внутри поля - просто текст, она не должна сбивать поиск границ кусков
+            fw.write("1,TASK,5\" screen,NEW,descr,null,null\n");
+            for (int i = 2; i <= 100; i++) {
+                fw.write(i + ",TASK,\"task\n" + i + "\",NEW,descr,null,null\n");
+            }
+        }
+        StorageSettings settings = new StorageSettings();
+        settings.setParallelLoadEnabled(true);
+        settings.setParallelLoadChunkSize(256);
+
+        //Act
+        FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFile(file, settings);
+
+        //Assert
+        List<Task> tasks = parallel.getListTasks();
+        assertEquals(100, tasks.size());
+        assertEquals("5\" screen", parallel.getTask(1).getName());
+        for (int i = 2; i <= 100; i++) {
+            assertEquals("task\n" + i, parallel.getTask(i).getName());
+        }
+    }
+
+    @Test
+    public void loadFromFile_parallelLoadShouldThrowExceptionIfFileIsWrong() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+        try (FileWriter fw = new FileWriter(file)) {
+            for (int i = 1; i < 100; i++) {
+                fw.write(i + ",TASK,task,NEW,descr,null,null\n");
+            }
+            fw.write("100,TASK,task,UNKNOWN,descr,null,null\n");
+        }
+        StorageSettings settings = new StorageSettings();
+        settings.setParallelLoadEnabled(true);
+        settings.setParallelLoadChunkSize(256);
+
+        //Act & Assert
+        assertThrows(ManagerLoadException.class, () -> FileBackedTaskManager.loadFromFile(file, settings));
+    }
 }
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import ru.yandex.practicum.tasks.logic.InMemoryHistoryManager;
 import ru.yandex.practicum.tasks.logic.InMemoryTaskManager;
 import ru.yandex.practicum.tasks.logic.TaskManager;
+import ru.yandex.practicum.tasks.logic.enums.HistoryMode;
 import ru.yandex.practicum.tasks.model.BaseTask;
 import ru.yandex.practicum.tasks.model.Epic;
 import ru.yandex.practicum.tasks.model.Subtask;
@@ -278,4 +279,123 @@ class InMemoryHistoryManagerTest {
         BaseTask lastTaskInHistory = history.getLast();
         assertEquals(epic2, lastTaskInHistory);
     }
+
+    @Test
+    void add_shouldEvictTheOldestTaskWhenCapacityIsExceeded() {
+        //Arrange
+        inMemoryHistoryManager = new InMemoryHistoryManager(2);
+        Task task1 = new Task("task1", "descr1");
+        task1.setId(1);
+        Task task2 = new Task("task2", "descr2");
+        task2.setId(2);
+        Task task3 = new Task("task3", "descr3");
+        task3.setId(3);
+        inMemoryHistoryManager.add(task1);
+        inMemoryHistoryManager.add(task2);
+        inMemoryHistoryManager.add(task1);//task1 просмотрена позже task2
+
+        //Act
+        inMemoryHistoryManager.add(task3);
+
+        //Assert
+        List<BaseTask> history = inMemoryHistoryManager.getHistory();
+        assertEquals(List.of(task1, task3), history);
+        assertEquals(1, inMemoryHistoryManager.getEvictionCount());
+    }
+
+    @Test
+    void add_shouldEvictOldTasksWhenMemoryBudgetIsExceeded() {
+        //Arrange
+        Task task = new Task("task", "descr");
+        task.setId(1);
+        inMemoryHistoryManager.add(task);
+        long taskSize = inMemoryHistoryManager.getEstimatedMemory();
+        inMemoryHistoryManager = new InMemoryHistoryManager(0, 3 * taskSize);
+
+        //Act
+        for (int id = 1; id <= 10; id++) {
+            task.setId(id);
+            inMemoryHistoryManager.add(task);
+        }
+
+        //Assert
+        List<BaseTask> history = inMemoryHistoryManager.getHistory();
+        assertEquals(3, history.size());
+        assertEquals(8, history.getFirst().getId());
+        assertEquals(7, inMemoryHistoryManager.getEvictionCount());
+        assertEquals(3 * taskSize, inMemoryHistoryManager.getEstimatedMemory());
+    }
+
+    @Test
+    void remove_shouldNotBeCountedAsEviction() {
+        //Arrange
+        inMemoryHistoryManager = new InMemoryHistoryManager(1);
+        Task task = new Task("task1", "descr1");
+        task.setId(1);
+        inMemoryHistoryManager.add(task);
+
+        //Act
+        inMemoryHistoryManager.remove(task.getId());
+
+        //Assert
+        assertEquals(0, inMemoryHistoryManager.size());
+        assertEquals(0, inMemoryHistoryManager.getEvictionCount());
+        assertEquals(0, inMemoryHistoryManager.getEstimatedMemory());
+    }
+
+    @Test
+    void getHistory_copyOnReadShouldReturnCopiesOfTasksInTheirCurrentState() {
+        //Arrange
+        inMemoryHistoryManager = new InMemoryHistoryManager(0, 0, HistoryMode.COPY_ON_READ);
+        TaskManager taskManager = new InMemoryTaskManager(inMemoryHistoryManager);
+        Task task = new Task("task1", "descr1");
+        taskManager.add(task);
+        taskManager.getListTasks();
+
+        //Act
+        taskManager.setStatus(task, Status.DONE);
+        List<BaseTask> history = inMemoryHistoryManager.getHistory();
+
+        //Assert
+        assertEquals(1, history.size());
+        assertEquals(Status.DONE, history.getFirst().getStatus());
+        assertNotSame(taskManager.getListTasks().getFirst(), history.getFirst());
+    }
+
+    @Test
+    void getHistory_idOnlyShouldReturnCurrentStateOfTasksAndSkipDeletedOnes() {
+        //Arrange
+        inMemoryHistoryManager = new InMemoryHistoryManager(0, 0, HistoryMode.ID_ONLY);
+        TaskManager taskManager = new InMemoryTaskManager(inMemoryHistoryManager);
+        Task task1 = new Task("task1", "descr1");
+        Task task2 = new Task("task2", "descr2");
+        taskManager.add(task1);
+        taskManager.add(task2);
+        taskManager.getTask(task1.getId());
+        taskManager.getTask(task2.getId());
+
+        //Act
+        taskManager.setStatus(task1, Status.DONE);
+        inMemoryHistoryManager.add(task2);
+        taskManager.removeTask(task2.getId());
+        inMemoryHistoryManager.add(task2);//id попадает в историю, хотя у менеджера таски уже нет
+
+        //Assert
+        List<BaseTask> history = inMemoryHistoryManager.getHistory();
+        assertEquals(List.of(task1), history);
+        assertEquals(Status.DONE, history.getFirst().getStatus());
+        assertEquals(2, inMemoryHistoryManager.size());
+    }
+
+    @Test
+    void getHistory_idOnlyWithoutTaskSourceShouldThrowException() {
+        //Arrange
+        inMemoryHistoryManager = new InMemoryHistoryManager(0, 0, HistoryMode.ID_ONLY);
+        Task task = new Task("task1", "descr1");
+        task.setId(1);
+        inMemoryHistoryManager.add(task);
+
+        //Act & Assert
+        assertThrowsExactly(IllegalStateException.class, () -> inMemoryHistoryManager.getHistory());
+    }
 }
\ No newline at end of file
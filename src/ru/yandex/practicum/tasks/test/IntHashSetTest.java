@@ -0,0 +1,91 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.logic.IntHashSet;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntHashSetTest {
+    private IntHashSet set;
+
+    @BeforeEach
+    void setUp() {
+        set = new IntHashSet();
+    }
+
+    @Test
+    void add_shouldNotAddTheSameValueTwice() {
+        //Act
+        boolean first = set.add(5);
+        boolean second = set.add(5);
+
+        //Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void toArray_sequentialValuesShouldBeInAscendingOrder() {
+        //Arrange
+        for (int id = 100; id >= 0; id--) {
+            set.add(id);
+        }
+
+        //Act
+        int[] result = set.toArray();
+
+        //Assert
+        for (int i = 0; i < result.length; i++) {
+            assertEquals(i, result[i]);
+        }
+    }
+
+    @Test
+    void remove_shouldKeepOtherValuesReachable() {
+        //Arrange
+        Random random = new Random(42);
+        Set<Integer> expected = new HashSet<>();
+
+        //Act
+        for (int i = 0; i < 20000; i++) {
+            //маленький диапазон и кратные 64 значения дают длинные цепочки пробирования
+            int value = random.nextBoolean() ? random.nextInt(500) - 100 : 64 * random.nextInt(50);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+        }
+
+        //Assert
+        assertEquals(expected.size(), set.size());
+        for (int value = -100; value < 3200; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+        int[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).sorted().toArray(), values);
+    }
+
+    @Test
+    void clear_shouldRemoveAllValues() {
+        //Arrange
+        set.add(0);
+        set.add(1);
+
+        //Act
+        set.clear();
+
+        //Assert
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(1));
+    }
+}
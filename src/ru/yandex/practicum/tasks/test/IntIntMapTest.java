@@ -0,0 +1,49 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.logic.IntIntMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntMapTest {
+
+    @Test
+    void get_shouldReturnDefaultValueForMissingKey() {
+        //Arrange
+        IntIntMap map = new IntIntMap();
+        map.put(0, 5);
+
+        //Act & Assert
+        assertEquals(5, map.get(0, -1));
+        assertEquals(-1, map.get(1, -1));
+    }
+
+    @Test
+    void remove_shouldKeepOtherEntriesReachable() {
+        //Arrange
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        //Act
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextBoolean() ? random.nextInt(500) - 100 : 64 * random.nextInt(50);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+
+        //Assert
+        assertEquals(expected.size(), map.size());
+        for (int key = -100; key < 3200; key++) {
+            assertEquals(expected.getOrDefault(key, -1), map.get(key, -1));
+        }
+    }
+}
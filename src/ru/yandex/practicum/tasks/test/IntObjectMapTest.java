@@ -0,0 +1,82 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.logic.IntObjectMap;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectMapTest {
+    private IntObjectMap<String> map;
+
+    @BeforeEach
+    void setUp() {
+        map = new IntObjectMap<>();
+    }
+
+    @Test
+    void put_shouldReplaceValueAndReturnPreviousOne() {
+        //Arrange
+        map.put(1, "first");
+
+        //Act
+        String previous = map.put(1, "second");
+
+        //Assert
+        assertEquals("first", previous);
+        assertEquals("second", map.get(1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void put_shouldNotAcceptNullValue() {
+        //Act & Assert
+        assertThrowsExactly(IllegalArgumentException.class, () -> map.put(1, null));
+    }
+
+    @Test
+    void values_sequentialKeysShouldBeInAscendingOrder() {
+        //Arrange
+        for (int key = 40; key >= 0; key--) {
+            map.put(key, "value" + key);
+        }
+
+        //Act
+        List<String> values = map.values();
+
+        //Assert
+        for (int key = 0; key <= 40; key++) {
+            assertEquals("value" + key, values.get(key));
+        }
+    }
+
+    @Test
+    void remove_shouldKeepOtherEntriesReachable() {
+        //Arrange
+        Random random = new Random(7);
+        Map<Integer, String> expected = new HashMap<>();
+
+        //Act
+        for (int i = 0; i < 20000; i++) {
+            //маленький диапазон и кратные 64 ключи дают длинные цепочки пробирования
+            int key = random.nextBoolean() ? random.nextInt(500) - 100 : 64 * random.nextInt(50);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, "value" + i), map.put(key, "value" + i));
+            }
+        }
+
+        //Assert
+        assertEquals(expected.size(), map.size());
+        for (int key = -100; key < 3200; key++) {
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+    }
+}
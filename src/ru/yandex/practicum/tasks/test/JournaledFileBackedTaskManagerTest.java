@@ -0,0 +1,249 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tasks.logic.FileBackedTaskManager;
+import ru.yandex.practicum.tasks.logic.Managers;
+import ru.yandex.practicum.tasks.logic.StorageSettings;
+import ru.yandex.practicum.tasks.logic.enums.DurabilityPolicy;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledFileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    private File file;
+
+    private static StorageSettings journalSettings() {
+        StorageSettings settings = new StorageSettings();
+        settings.setJournalEnabled(true);
+        return settings;
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = File.createTempFile("prefix", "suffix");
+        taskManager = new FileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory(), journalSettings());
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskManager.close();
+    }
+
+    @Test
+    void add_shouldAppendRecordToJournalWithoutRewritingSnapshot() throws IOException {
+        //Arrange
+        taskManager.add(new Task("task1", "descr1"));
+        String snapshot = Files.readString(file.toPath());
+
+        //Act
+        taskManager.add(new Task("task2", "descr2"));
+        taskManager.setStatus(2, Status.DONE);
+
+        //Assert
+        assertEquals(snapshot, Files.readString(file.toPath()));
+        List<String> journal = Files.readAllLines(new File(file.getAbsolutePath() + ".wal").toPath());
+        assertEquals(List.of("ADD,2,TASK,task2,NEW,descr2,null,null", "STATUS,2,DONE"), journal);
+    }
+
+    @Test
+    void loadFromFile_shouldReplayJournalOverSnapshot() {
+        //Arrange
+        Epic epic = new Epic("epic1", "descr1");
+        taskManager.add(epic);
+        Subtask subtask1 = new Subtask("subtask1", "descr2");
+        subtask1.setEpicId(epic.getId());
+        taskManager.add(subtask1);
+        Subtask subtask2 = new Subtask("subtask2", "descr3");
+        subtask2.setEpicId(epic.getId());
+        taskManager.add(subtask2);
+        Task task = new Task("task1", "descr4");
+        taskManager.add(task);
+        taskManager.setStatus(subtask1.getId(), Status.DONE);
+        taskManager.removeSubTask(subtask2.getId());
+        taskManager.close();
+
+        //Act
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, journalSettings());
+
+        //Assert
+        assertEquals(1, loaded.getListTasks().size());
+        assertEquals(Status.DONE, loaded.getEpic(epic.getId()).getStatus());
+        List<Subtask> subtasks = loaded.getListSubtasks();
+        assertEquals(1, subtasks.size());
+        assertEquals("subtask1", subtasks.getFirst().getName());
+        loaded.add(new Task("task2", "descr5"));
+        assertEquals(task.getId() + 1, loaded.getListTasks().stream()
+                .filter(t -> t.getName().equals("task2")).findFirst().orElseThrow().getId());
+        loaded.close();
+    }
+
+    @Test
+    void loadFromFile_withoutJournalingShouldMoveJournalIntoSnapshot() {
+        //Arrange
+        taskManager.add(new Task("task1", "descr1"));
+        taskManager.add(new Task("task2", "descr2"));
+        taskManager.clearTasks();
+        taskManager.add(new Task("task3", "descr3"));
+        taskManager.close();
+
+        //Act
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file);
+
+        //Assert
+        assertTrue(loaded.getHistory().isEmpty());
+        assertFalse(new File(file.getAbsolutePath() + ".wal").exists());
+        List<Task> tasks = loaded.getListTasks();
+        assertEquals(1, tasks.size());
+        assertEquals("task3", tasks.getFirst().getName());
+    }
+
+    @Test
+    void compact_shouldWriteSnapshotAndStartEmptyJournal() throws IOException {
+        //Arrange
+        taskManager.add(new Task("task1", "descr1"));
+        taskManager.add(new Task("task2", "descr2"));
+        taskManager.setStatus(2, Status.IN_PROGRESS);
+
+        //Act
+        taskManager.compact();
+
+        //Assert
+        assertEquals(List.of("1,TASK,task1,NEW,descr1,null,null", "2,TASK,task2,IN_PROGRESS,descr2,null,null"),
+                Files.readAllLines(file.toPath()));
+        assertEquals(0, Files.size(new File(file.getAbsolutePath() + ".wal").toPath()));
+        assertFalse(new File(file.getAbsolutePath() + ".wal.old").exists());
+    }
+
+    @Test
+    void add_shouldCompactJournalWhenRecordThresholdIsReached() {
+        //Arrange
+        StorageSettings settings = journalSettings();
+        settings.setCompactionRecordThreshold(3);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory(), settings);
+
+        //Act
+        for (int i = 1; i <= 10; i++) {
+            manager.add(new Task("task" + i, "descr" + i));
+        }
+        manager.close();
+
+        //Assert
+        assertFalse(new File(file.getAbsolutePath() + ".wal.old").exists());
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, settings);
+        assertEquals(10, loaded.getListTasks().size());
+        assertTrue(loaded.getLoadStatistics().getRecords() < 10 + 3);
+        loaded.close();
+    }
+
+    @Test
+    void add_afterCloseShouldSaveSnapshotWithoutReopeningJournal() {
+        //Arrange
+        StorageSettings settings = journalSettings();
+        settings.setDurabilityPolicy(DurabilityPolicy.GROUP_COMMIT);
+        settings.setCompactionRecordThreshold(3);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory(), settings);
+        manager.add(new Task("task1", "descr1"));
+        manager.add(new Task("task2", "descr2"));
+        manager.close();
+        long flushersBefore = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("journal-group-commit")).count();
+
+        //Act
+        for (int i = 3; i <= 12; i++) {
+            manager.add(new Task("task" + i, "descr" + i));
+        }
+        manager.removeTask(1);
+
+        //Assert
+        long flushersAfter = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("journal-group-commit")).count();
+        assertEquals(flushersBefore, flushersAfter);
+        assertFalse(new File(file.getAbsolutePath() + ".wal").exists());
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, settings);
+        assertEquals(11, loaded.getListTasks().size());
+        loaded.close();
+    }
+
+    @Test
+    void add_everyOpShouldForceEveryJournalRecord() {
+        //Arrange
+        StorageSettings settings = journalSettings();
+        settings.setDurabilityPolicy(DurabilityPolicy.EVERY_OP);
+        FileBackedTaskManager manager = new FileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory(), settings);
+        manager.add(new Task("task1", "descr1"));
+
+        //Act
+        manager.add(new Task("task2", "descr2"));
+        manager.setStatus(2, Status.DONE);
+        manager.close();
+
+        //Assert
+        assertEquals(2, manager.getJournalStatistics().getForces());
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, settings);
+        assertEquals(Status.DONE, loaded.getTask(2).getStatus());
+        loaded.close();
+    }
+
+    @Test
+    void loadFromFile_shouldReplayJournalRecordsWithLineBreaksInFields() {
+        //Arrange
+        taskManager.add(new Task("task1", "descr1"));
+        taskManager.add(new Task("task2", "line1\r\nline2"));
+        taskManager.close();
+
+        //Act
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, journalSettings());
+
+        //Assert
+        assertEquals("line1\r\nline2", loaded.getTask(2).getDescription());
+        loaded.close();
+    }
+
+    @Test
+    void loadFromFile_shouldDropJournalRecordTornByCrash() throws IOException {
+        //Arrange
+        taskManager.add(new Task("task1", "descr1"));
+        taskManager.add(new Task("task2", "descr2"));
+        taskManager.close();
+        File journal = new File(file.getAbsolutePath() + ".wal");
+        //падение посреди дописывания последней записи: от нее остается начало без \n
+        try (FileChannel channel = FileChannel.open(journal.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+
+        //Act
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(file, journalSettings());
+        loaded.add(new Task("task3", "descr3"));
+        loaded.close();
+        FileBackedTaskManager reloaded = FileBackedTaskManager.loadFromFile(file, journalSettings());
+
+        //Assert
+        assertEquals(List.of("task1", "task3"), reloaded.getListTasks().stream().map(Task::getName).toList());
+        reloaded.close();
+    }
+
+    @Test
+    void loadFromFile_shouldThrowManagerLoadExceptionIfJournalRecordIsMalformed() throws IOException {
+        //Arrange
+        taskManager.add(new Task("task1", "descr1"));
+        taskManager.close();
+        Files.writeString(new File(file.getAbsolutePath() + ".wal").toPath(), "STATUS,1\nSTATUS,1,FINISHED\n",
+                StandardOpenOption.APPEND);
+
+        //Act && Assert
+        assertThrowsExactly(ManagerLoadException.class, () -> FileBackedTaskManager.loadFromFile(file, journalSettings()));
+    }
+}
@@ -2,6 +2,8 @@ package ru.yandex.practicum.tasks.test;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.logic.AsyncTaskManager;
+import ru.yandex.practicum.tasks.logic.FileBackedTaskManager;
 import ru.yandex.practicum.tasks.logic.HistoryManager;
 import ru.yandex.practicum.tasks.logic.Managers;
 import ru.yandex.practicum.tasks.logic.TaskManager;
@@ -10,6 +12,8 @@ import ru.yandex.practicum.tasks.model.Epic;
 import ru.yandex.practicum.tasks.model.Subtask;
 import ru.yandex.practicum.tasks.model.Task;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -72,4 +76,59 @@ class ManagersTest {
         assertEquals(epic, history.get(1));
         assertEquals(subtask, history.get(2));
     }
+
+    @Test
+    void getFileBackedAsync_shouldReturnAsyncManagerWhichSavesToFile() throws IOException {
+        //Arrange
+        File file = File.createTempFile("prefix", "suffix");
+
+        //Act
+        int taskId;
+        try (AsyncTaskManager taskManager = managers.getFileBackedAsync(file.getPath())) {
+            taskId = taskManager.addAsync(new Task("task1", "descr1")).join();
+            assertEquals("task1", taskManager.getTaskAsync(taskId).join().getName());
+        }
+
+        //Assert
+        List<Task> tasks = FileBackedTaskManager.loadFromFile(file).getListTasks();
+        assertEquals(1, tasks.size());
+        assertEquals(taskId, tasks.getFirst().getId());
+    }
+
+    @Test
+    void getDefaultHistory_shouldNotLimitNumberOfTasks() {
+        //Arrange
+        HistoryManager historyManager = managers.getDefaultHistory();
+
+        //Act
+        for (int id = 1; id <= Managers.BOUNDED_HISTORY_CAPACITY + 1; id++) {
+            Task task = new Task("task" + id, "descr");
+            task.setId(id);
+            historyManager.add(task);
+        }
+
+        //Assert
+        assertEquals(Managers.BOUNDED_HISTORY_CAPACITY + 1, historyManager.getHistory().size());
+    }
+
+    @Test
+    void getBoundedHistory_shouldEvictLeastRecentlyViewedTask() {
+        //Arrange
+        HistoryManager historyManager = managers.getBoundedHistory(2);
+        Task task1 = new Task("task1", "descr1");
+        task1.setId(1);
+        Task task2 = new Task("task2", "descr2");
+        task2.setId(2);
+        Task task3 = new Task("task3", "descr3");
+        task3.setId(3);
+
+        //Act
+        historyManager.add(task1);
+        historyManager.add(task2);
+        historyManager.add(task1);
+        historyManager.add(task3);
+
+        //Assert
+        assertEquals(List.of(task1, task3), historyManager.getHistory());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.exceptions.ManagerLoadException;
+import ru.yandex.practicum.tasks.logic.Managers;
+import ru.yandex.practicum.tasks.logic.MappedFileBackedTaskManager;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.enums.Status;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileBackedTaskManagerTest extends TaskManagerTest<MappedFileBackedTaskManager> {
+    private File file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = File.createTempFile("prefix", "suffix");
+        taskManager = new MappedFileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory());
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskManager.close();
+        new File(file.getAbsolutePath() + ".strings").delete();
+    }
+
+    @Test
+    void open_shouldRestoreAllFieldsOfTasks() {
+        //Arrange
+        Task task = new Task("task1", "описание, с запятой");
+        task.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 0));
+        task.setDuration(Duration.ofMinutes(30));
+        taskManager.add(task);
+        Epic epic = new Epic("epic1", null);
+        taskManager.add(epic);
+        Subtask subtask = new Subtask("subtask1", "descr3");
+        subtask.setEpicId(epic.getId());
+        subtask.setDuration(Duration.ofMinutes(15));
+        taskManager.add(subtask);
+        taskManager.setStatus(subtask.getId(), Status.DONE);
+        taskManager.close();
+
+        //Act
+        taskManager = MappedFileBackedTaskManager.open(file);
+
+        //Assert
+        Task restoredTask = taskManager.getTask(task.getId());
+        assertEquals("task1", restoredTask.getName());
+        assertEquals("описание, с запятой", restoredTask.getDescription());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0), restoredTask.getStartTime());
+        assertEquals(Duration.ofMinutes(30), restoredTask.getDuration());
+        Epic restoredEpic = taskManager.getEpic(epic.getId());
+        assertNull(restoredEpic.getDescription());
+        assertEquals(Status.DONE, restoredEpic.getStatus());
+        Subtask restoredSubtask = taskManager.getSubtask(subtask.getId());
+        assertEquals(Status.DONE, restoredSubtask.getStatus());
+        assertEquals(epic.getId(), restoredSubtask.getEpicId());
+        assertNull(restoredSubtask.getStartTime());
+        assertEquals(Duration.ofMinutes(15), restoredSubtask.getDuration());
+    }
+
+    @Test
+    void open_shouldNotRestoreRemovedTasksAndShouldReuseTheirSlots() {
+        //Arrange
+        Epic epic = new Epic("epic1", "descr1");
+        taskManager.add(epic);
+        Subtask subtask = new Subtask("subtask1", "descr2");
+        subtask.setEpicId(epic.getId());
+        taskManager.add(subtask);
+        taskManager.add(new Task("task1", "descr3"));
+        taskManager.removeEpic(epic.getId());
+        //новый эпик займет освободившийся слот сабтаски, а его сабтаска - слот перед ним
+        Epic newEpic = new Epic("epic2", "descr4");
+        taskManager.add(newEpic);
+        Subtask newSubtask = new Subtask("subtask2", "descr5");
+        newSubtask.setEpicId(newEpic.getId());
+        taskManager.add(newSubtask);
+        long fileSize = file.length();
+        taskManager.close();
+
+        //Act
+        taskManager = MappedFileBackedTaskManager.open(file);
+
+        //Assert
+        assertEquals(fileSize, file.length());
+        assertEquals(List.of(3), taskManager.getListTasks().stream().map(BaseTask::getId).toList());
+        assertEquals(List.of(4), taskManager.getListEpics().stream().map(BaseTask::getId).toList());
+        assertEquals(List.of(5), taskManager.getSubtasksOfEpic(4).stream().map(BaseTask::getId).toList());
+    }
+
+    @Test
+    void open_nextIdShouldBeGreaterThanMaxRestoredId() {
+        //Arrange
+        taskManager.add(new Task("task1", "descr1"));
+        taskManager.add(new Task("task2", "descr2"));
+        taskManager.removeTask(1);
+        taskManager.close();
+        taskManager = MappedFileBackedTaskManager.open(file);
+        Task task = new Task("task3", "descr3");
+
+        //Act
+        taskManager.add(task);
+
+        //Assert
+        assertEquals(3, task.getId());
+    }
+
+    @Test
+    void add_shouldGrowFileWhenAllSlotsAreUsed() {
+        //Arrange
+        int count = 3000;
+
+        //Act
+        for (int i = 0; i < count; i++) {
+            taskManager.add(new Task("task" + i, "descr" + i));
+        }
+        taskManager.close();
+        taskManager = MappedFileBackedTaskManager.open(file);
+
+        //Assert
+        assertEquals(count, taskManager.getListTasks().size());
+        assertEquals("task2999", taskManager.getTask(count).getName());
+    }
+
+    @Test
+    void close_shouldCompactStringsFileWhenMostStringsAreGarbage() {
+        //Arrange
+        String description = "d".repeat(2048);
+        for (int i = 0; i < 1000; i++) {
+            taskManager.add(new Task("task" + i, description));
+        }
+        for (int id = 2; id <= 1000; id++) {
+            taskManager.removeTask(id);
+        }
+        File strings = new File(file.getAbsolutePath() + ".strings");
+        long sizeBefore = strings.length();
+
+        //Act
+        taskManager.close();
+        taskManager = MappedFileBackedTaskManager.open(file);
+
+        //Assert
+        assertTrue(strings.length() < sizeBefore / 100);
+        assertEquals(1, taskManager.getListTasks().size());
+        assertEquals("task0", taskManager.getTask(1).getName());
+        assertEquals(description, taskManager.getTask(1).getDescription());
+        taskManager.add(new Task("task1000", "descr"));
+        taskManager.close();
+        taskManager = MappedFileBackedTaskManager.open(file);
+        assertEquals(2, taskManager.getListTasks().size());
+    }
+
+    @Test
+    void open_shouldThrowManagerLoadExceptionIfStringOffsetIsCorrupted() throws IOException {
+        //Arrange
+        taskManager.add(new Task("task1", "descr1"));
+        taskManager.close();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            //смещение name первого слота: заголовок 16 байт + 28 байт от начала слота
+            raf.seek(44);
+            raf.writeLong(Integer.MAX_VALUE + 10L);
+        }
+
+        //Act & Assert
+        assertThrows(ManagerLoadException.class, () -> MappedFileBackedTaskManager.open(file));
+        taskManager = new MappedFileBackedTaskManager(file.getAbsolutePath(), (new Managers()).getDefaultHistory());
+    }
+}
@@ -0,0 +1,95 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.logic.Managers;
+import ru.yandex.practicum.tasks.logic.StampedLockTaskManager;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Epic;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.Task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StampedLockTaskManagerTest extends TaskManagerTest<StampedLockTaskManager> {
+    @BeforeEach
+    void setUp() {
+        taskManager = new StampedLockTaskManager((new Managers()).getDefaultHistory());
+    }
+
+    @Test
+    void getPrioritizedTasks_shouldReturnNewSnapshotAfterChange() {
+        //Arrange
+        Task task1 = new Task("task1", "descr1");
+        task1.setStartTime(LocalDateTime.of(2024, 1, 1, 10, 0));
+        task1.setDuration(Duration.ofMinutes(30));
+        taskManager.add(task1);
+        List<BaseTask> snapshot = taskManager.getPrioritizedTasks();
+        Task task2 = new Task("task2", "descr2");
+        task2.setStartTime(LocalDateTime.of(2024, 1, 1, 9, 0));
+        task2.setDuration(Duration.ofMinutes(30));
+
+        //Act
+        taskManager.add(task2);
+
+        //Assert
+        assertEquals(List.of(task1), snapshot);
+        assertEquals(List.of(task2, task1), taskManager.getPrioritizedTasks());
+    }
+
+    @Test
+    void getSubtasksOfEpic_readersShouldNotFailWhileWriterChangesTasks() throws InterruptedException {
+        //Arrange
+        Epic epic = new Epic("epic", "descr");
+        taskManager.add(epic);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            readers.add(new Thread(() -> {
+                try {
+                    while (!stop.get()) {
+                        for (Subtask subtask : taskManager.getSubtasksOfEpic(epic.getId())) {
+                            assertEquals(epic.getId(), subtask.getEpicId());
+                        }
+                        assertEquals(epic.getId(), taskManager.getEpic(epic.getId()).getId());
+                        List<BaseTask> prioritizedTasks = taskManager.getPrioritizedTasks();
+                        for (int j = 1; j < prioritizedTasks.size(); j++) {
+                            assertTrue(prioritizedTasks.get(j - 1).getStartTime().isBefore(prioritizedTasks.get(j).getStartTime()));
+                        }
+                    }
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+            }));
+        }
+
+        //Act
+        readers.forEach(Thread::start);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 2000; i++) {
+            Subtask subtask = new Subtask("subtask", "descr");
+            subtask.setEpicId(epic.getId());
+            subtask.setStartTime(start.plusHours(i));
+            subtask.setDuration(Duration.ofMinutes(30));
+            taskManager.add(subtask);
+            if (i % 3 == 0) {
+                taskManager.clearSubTasks();
+            }
+        }
+        stop.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        //Assert
+        assertNull(error.get());
+    }
+}
@@ -0,0 +1,138 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Subtask;
+import ru.yandex.practicum.tasks.model.TaskCsvParser;
+import ru.yandex.practicum.tasks.model.enums.TaskType;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCsvParserTest {
+
+    @Test
+    void next_shouldParseAllRecordsOfCharBuffer() {
+        //Arrange
+        CharBuffer buffer = CharBuffer.wrap("1,TASK,task1,NEW,descr1,null,null\r\n"
+                + "2,EPIC,\"epic\nwith two lines\",NEW,descr2,null,null\n"
+                + "3,SUBTASK,subtask1,DONE,descr3,01.01.2025 10:00,15,2\n");
+        TaskCsvParser parser = new TaskCsvParser(buffer);
+        List<BaseTask> tasks = new ArrayList<>();
+
+        //Act
+        while (parser.hasNext()) {
+            tasks.add(parser.next());
+        }
+
+        //Assert
+        assertEquals(3, tasks.size());
+        assertEquals("descr1", tasks.get(0).getDescription());
+        assertEquals("epic\nwith two lines", tasks.get(1).getName());
+        assertEquals(TaskType.SUBTASK, tasks.get(2).getTaskType());
+        assertEquals(2, ((Subtask) tasks.get(2)).getEpicId());
+    }
+
+    @Test
+    void next_shouldReadUnclosedQuoteAsTextLikeLegacyFiles() {
+        //Arrange
+        //строка из старого файла: имя начинается с кавычки, но в кавычки не взято
+        TaskCsvParser parser = new TaskCsvParser("1,TASK,\"task1,NEW,descr1,null,null\n2,TASK,task2,DONE,descr2,null,null\n");
+
+        //Act
+        BaseTask task1 = parser.next();
+        BaseTask task2 = parser.next();
+
+        //Assert
+        assertEquals("\"task1", task1.getName());
+        assertEquals("descr1", task1.getDescription());
+        assertEquals("task2", task2.getName());
+        assertFalse(parser.hasNext());
+    }
+
+    @Test
+    void next_shouldReadTextAfterClosingQuoteAsUnquotedField() {
+        //Arrange
+        TaskCsvParser parser = new TaskCsvParser("1,TASK,\"task\" one,NEW,descr1,null,null\n");
+
+        //Act
+        BaseTask task = parser.next();
+
+        //Assert
+        assertEquals("\"task\" one", task.getName());
+        assertEquals("descr1", task.getDescription());
+    }
+
+    @Test
+    void readTasks_shouldReadFileBiggerThanReadBuffer() throws IOException {
+        //Arrange
+        Path path = Files.createTempFile("prefix", "suffix");
+        StringBuilder content = new StringBuilder();
+        int count = 5000;
+        for (int id = 1; id <= count; id++) {
+            //перевод строки внутри кавычек и \r\n в конце записи могут попасть на границу куска
+            content.append(id).append(",TASK,\"task\r\n").append(id).append("\",NEW,descr,null,null\r\n");
+        }
+        Files.writeString(path, content);
+        List<BaseTask> tasks = new ArrayList<>();
+
+        //Act
+        long result = TaskCsvParser.readTasks(path, tasks::add);
+
+        //Assert
+        assertEquals(count, result);
+        for (int id = 1; id <= count; id++) {
+            assertEquals(id, tasks.get(id - 1).getId());
+            assertEquals("task\r\n" + id, tasks.get(id - 1).getName());
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    void findRecordEnd_shouldTreatQuotesLikeParser() {
+        //Arrange
+        String strayQuote = "1,TASK,5\" screen,NEW,descr,null,null\n2,TASK,\"task,\nname\",NEW,descr,null,null\n3";
+        String unclosedQuote = "1,TASK,\"task,NEW,descr,null,null\n2";
+        String quoteAtEnd = "1,TASK,\"task\"";
+
+        //Act & Assert
+        assertEquals(strayQuote.indexOf('\n') + 1, TaskCsvParser.findRecordEnd(strayQuote, 0));
+        assertEquals(strayQuote.lastIndexOf('\n') + 1, TaskCsvParser.findRecordEnd(strayQuote, strayQuote.indexOf('\n') + 1));
+        assertEquals(-1, TaskCsvParser.findRecordEnd(strayQuote, strayQuote.lastIndexOf('\n') + 1));
+        //закрывающая кавычка может появиться дальше в файле
+        assertEquals(-1, TaskCsvParser.findRecordEnd(unclosedQuote, 0));
+        //следующей может оказаться еще одна кавычка
+        assertEquals(-1, TaskCsvParser.findRecordEnd(quoteAtEnd, 0));
+        assertEquals(-1, TaskCsvParser.findRecordEnd("1,TASK,task\r", 0));
+    }
+
+    @Test
+    void readTasks_shouldReadRecordsAfterUnbalancedQuote() throws IOException {
+        //Arrange
+        Path path = Files.createTempFile("prefix", "suffix");
+        StringBuilder content = new StringBuilder("1,TASK,5\" screen,NEW,descr,null,null\n");
+        int count = 5000;
+        for (int id = 2; id <= count; id++) {
+            content.append(id).append(",TASK,\"task,").append(id).append("\",NEW,descr,null,null\n");
+        }
+        Files.writeString(path, content);
+        List<BaseTask> tasks = new ArrayList<>();
+
+        //Act
+        long result = TaskCsvParser.readTasks(path, tasks::add);
+
+        //Assert
+        assertEquals(count, result);
+        assertEquals("5\" screen", tasks.get(0).getName());
+        for (int id = 2; id <= count; id++) {
+            assertEquals("task," + id, tasks.get(id - 1).getName());
+        }
+        Files.delete(path);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.logic.JournalStatistics;
+import ru.yandex.practicum.tasks.logic.TaskJournal;
+import ru.yandex.practicum.tasks.logic.enums.DurabilityPolicy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskJournalTest {
+    private File file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = File.createTempFile("journal", "wal");
+    }
+
+    private List<String> readRecords() {
+        List<String> records = new ArrayList<>();
+        new TaskJournal(file).replay(records::add);
+        return records;
+    }
+
+    @Test
+    void append_everyOpShouldForceEachRecord() {
+        //Arrange
+        TaskJournal journal = new TaskJournal(file, DurabilityPolicy.EVERY_OP, 1, 0);
+        journal.open(true);
+
+        //Act
+        journal.append(TaskJournal.removeRecord(1));
+        journal.append(TaskJournal.removeRecord(2));
+        journal.close();
+
+        //Assert
+        JournalStatistics statistics = journal.getStatistics();
+        assertEquals(2, statistics.getRecords());
+        assertEquals(2, statistics.getForces());
+        assertEquals(List.of("REMOVE,1", "REMOVE,2"), readRecords());
+    }
+
+    @Test
+    void append_groupCommitShouldWriteRecordsOfSeveralThreadsInOneBatch() throws InterruptedException {
+        //Arrange
+        TaskJournal journal = new TaskJournal(file, DurabilityPolicy.GROUP_COMMIT, 1000, 20);
+        journal.open(true);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int threadNumber = i;
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 10; j++) {
+                    journal.awaitDurable(journal.append(TaskJournal.removeRecord(threadNumber * 100 + j)));
+                }
+            }));
+        }
+
+        //Act
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        journal.close();
+
+        //Assert
+        JournalStatistics statistics = journal.getStatistics();
+        assertEquals(80, statistics.getRecords());
+        assertTrue(statistics.getMaxBatchSize() > 1);
+        assertTrue(statistics.getBatches() < 80);
+        assertEquals(80, readRecords().size());
+    }
+
+    @Test
+    void close_groupCommitShouldWritePendingRecords() {
+        //Arrange
+        TaskJournal journal = new TaskJournal(file, DurabilityPolicy.GROUP_COMMIT, 1000, 60_000);
+        journal.open(true);
+        journal.append(TaskJournal.removeRecord(1));
+
+        //Act
+        journal.close();
+
+        //Assert
+        assertEquals(List.of("REMOVE,1"), readRecords());
+    }
+}
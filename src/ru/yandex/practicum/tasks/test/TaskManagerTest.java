@@ -1000,4 +1000,30 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals("epic2", history.get(2).getName());
         assertEquals("epic1", history.get(3).getName());
     }
+
+    @Test
+    void getSubtasksOfEpic_shouldNotReturnRemovedSubtasks() {
+        //Arrange
+        Epic epic = new Epic("epic1", "descr");
+        taskManager.add(epic);
+        Epic epic2 = new Epic("epic2", "descr");
+        taskManager.add(epic2);
+        Subtask subtask1 = new Subtask("subtask1", "descr");
+        subtask1.setEpicId(epic.getId());
+        taskManager.add(subtask1);
+        Subtask subtask2 = new Subtask("subtask2", "descr");
+        subtask2.setEpicId(epic2.getId());
+        taskManager.add(subtask2);
+        Subtask subtask3 = new Subtask("subtask3", "descr");
+        subtask3.setEpicId(epic.getId());
+        taskManager.add(subtask3);
+
+        //Act
+        taskManager.removeSubTask(subtask1.getId());
+        taskManager.removeEpic(epic2.getId());
+
+        //Assert
+        assertEquals(List.of(subtask3.getId()), taskManager.getSubtasksOfEpic(epic.getId()).stream().map(BaseTask::getId).toList());
+        assertEquals(List.of(subtask3.getId()), taskManager.getListSubtasks().stream().map(BaseTask::getId).toList());
+    }
 }
@@ -0,0 +1,104 @@
+package ru.yandex.practicum.tasks.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.tasks.model.BaseTask;
+import ru.yandex.practicum.tasks.model.Task;
+import ru.yandex.practicum.tasks.model.TimeSpanIndex;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSpanIndexTest {
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private TimeSpanIndex timeSpanIndex;
+
+    @BeforeEach
+    void setUp() {
+        timeSpanIndex = new TimeSpanIndex();
+    }
+
+    private static Task createTask(int id, Integer startMinutes, Integer durationMinutes) {
+        Task task = new Task("task" + id, "descr");
+        task.setId(id);
+        if (startMinutes != null) {
+            task.setStartTime(BASE_TIME.plusMinutes(startMinutes));
+        }
+        if (durationMinutes != null) {
+            task.setDuration(Duration.ofMinutes(durationMinutes));
+        }
+        return task;
+    }
+
+    @Test
+    void hasOverlap_shouldReturnTrueIfNewTimeSpanStartsInsideExistingOne() {
+        //Arrange
+        timeSpanIndex.add(createTask(1, 0, 60));
+
+        //Act & Assert
+        assertTrue(timeSpanIndex.hasOverlap(BASE_TIME.plusMinutes(30), BASE_TIME.plusMinutes(90)));
+        assertTrue(timeSpanIndex.hasOverlap(BASE_TIME.plusMinutes(30), null));
+    }
+
+    @Test
+    void hasOverlap_shouldReturnTrueIfExistingTimeSpanStartsInsideNewOne() {
+        //Arrange
+        timeSpanIndex.add(createTask(1, 30, null));
+
+        //Act & Assert
+        assertTrue(timeSpanIndex.hasOverlap(BASE_TIME, BASE_TIME.plusMinutes(60)));
+    }
+
+    @Test
+    void hasOverlap_shouldReturnFalseForAdjacentTimeSpansAndTheSameStartTime() {
+        //Arrange
+        timeSpanIndex.add(createTask(1, 0, 60));
+
+        //Act & Assert
+        assertFalse(timeSpanIndex.hasOverlap(BASE_TIME.plusMinutes(60), BASE_TIME.plusMinutes(90)));
+        assertFalse(timeSpanIndex.hasOverlap(BASE_TIME, BASE_TIME.plusMinutes(90)));
+        assertFalse(timeSpanIndex.hasOverlap(null, null));
+    }
+
+    @Test
+    void remove_removedTimeSpanShouldNotBeOverlapped() {
+        //Arrange
+        Task task = createTask(1, 0, 60);
+        timeSpanIndex.add(task);
+
+        //Act
+        timeSpanIndex.remove(task);
+
+        //Assert
+        assertTrue(timeSpanIndex.isEmpty());
+        assertFalse(timeSpanIndex.hasOverlap(BASE_TIME.plusMinutes(30), BASE_TIME.plusMinutes(90)));
+    }
+
+    @Test
+    void hasOverlap_shouldGiveTheSameResultAsAreTimeSpansOverLapped() {
+        //Arrange
+        Random random = new Random(42);
+        List<BaseTask> existingTasks = new ArrayList<>();
+        for (int id = 1; id <= 300; id++) {
+            Task task = createTask(id, random.nextInt(5000), random.nextBoolean() ? null : 1 + random.nextInt(30));
+            existingTasks.add(task);
+            timeSpanIndex.add(task);
+        }
+        for (int i = 0; i < 100; i++) {
+            timeSpanIndex.remove(existingTasks.remove(random.nextInt(existingTasks.size())));
+        }
+
+        //Act & Assert
+        for (int i = 0; i < 2000; i++) {
+            Task newTask = createTask(0, random.nextInt(5100), random.nextBoolean() ? null : 1 + random.nextInt(60));
+            boolean expected = existingTasks.stream()
+                    .anyMatch(s -> BaseTask.areTimeSpansOverLapped(s.getStartTime(), s.getEndTime(), newTask.getStartTime(), newTask.getEndTime()));
+            assertEquals(expected, timeSpanIndex.hasOverlap(newTask.getStartTime(), newTask.getEndTime()));
+        }
+    }
+}